@@ -19,6 +19,11 @@ public final class InvUI implements Listener {
     
     private static final InvUI INSTANCE = new InvUI();
     private static final @Nullable Boolean FIRE_BUKKIT_INVENTORY_EVENTS_OVERRIDE;
+    private static final @Nullable Boolean SHARED_ITEM_ENCODING_OVERRIDE;
+    private static final @Nullable Boolean LAZY_PACKET_HANDLER_INJECTION_OVERRIDE;
+    private static final @Nullable Boolean IMMEDIATE_INCOMING_PROCESSING_OVERRIDE;
+    private static final @Nullable Boolean INERT_CLICK_REJECTION_OVERRIDE;
+    private static final @Nullable Integer PROGRESSIVE_OPEN_BUDGET_OVERRIDE;
     
     static {
         String property = System.getProperty("invui.fireBukkitInventoryEvents");
@@ -27,12 +32,47 @@ public final class InvUI implements Listener {
         } else {
             FIRE_BUKKIT_INVENTORY_EVENTS_OVERRIDE = null;
         }
+        
+        String sharedItemEncoding = System.getProperty("invui.sharedItemEncoding");
+        if (sharedItemEncoding != null) {
+            SHARED_ITEM_ENCODING_OVERRIDE = Boolean.parseBoolean(sharedItemEncoding);
+        } else {
+            SHARED_ITEM_ENCODING_OVERRIDE = null;
+        }
+        
+        String lazyPacketHandlerInjection = System.getProperty("invui.lazyPacketHandlerInjection");
+        if (lazyPacketHandlerInjection != null) {
+            LAZY_PACKET_HANDLER_INJECTION_OVERRIDE = Boolean.parseBoolean(lazyPacketHandlerInjection);
+        } else {
+            LAZY_PACKET_HANDLER_INJECTION_OVERRIDE = null;
+        }
+        
+        String immediateIncomingProcessing = System.getProperty("invui.immediateIncomingProcessing");
+        if (immediateIncomingProcessing != null) {
+            IMMEDIATE_INCOMING_PROCESSING_OVERRIDE = Boolean.parseBoolean(immediateIncomingProcessing);
+        } else {
+            IMMEDIATE_INCOMING_PROCESSING_OVERRIDE = null;
+        }
+        
+        String inertClickRejection = System.getProperty("invui.inertClickRejection");
+        if (inertClickRejection != null) {
+            INERT_CLICK_REJECTION_OVERRIDE = Boolean.parseBoolean(inertClickRejection);
+        } else {
+            INERT_CLICK_REJECTION_OVERRIDE = null;
+        }
+        
+        PROGRESSIVE_OPEN_BUDGET_OVERRIDE = Integer.getInteger("invui.progressiveOpenBudget");
     }
     
     private final List<Runnable> disableHandlers = new ArrayList<>();
     private @Nullable Plugin plugin;
     private BiConsumer<? super String, ? super Throwable> exceptionHandler = (msg, e) -> getPlugin().getComponentLogger().error(msg, e);
     private boolean fireBukkitInventoryEvents = true;
+    private boolean sharedItemEncoding = false;
+    private boolean lazyPacketHandlerInjection = false;
+    private boolean immediateIncomingProcessing = false;
+    private boolean inertClickRejection = false;
+    private int progressiveOpenBudget = 0;
     
     private InvUI() {}
     
@@ -150,6 +190,170 @@ public final class InvUI implements Listener {
         this.fireBukkitInventoryEvents = fireBukkitInventoryEvents;
     }
     
+    /**
+     * Whether items that are displayed identically to multiple players should be encoded only once.
+     * <p>
+     * If enabled, windows that render the same unmodified {@link xyz.xenondevs.invui.item.ItemProvider} into the
+     * same slot in the same locale share one item stack, whose encoded form is cached and reused for the
+     * slot update packets of all viewers. Such packets are written to the channel pre-encoded, which means that
+     * other plugins intercepting packets (e.g. via ProtocolLib) will not see them.
+     * <p>
+     * By default, this is {@code false}. It can be changed using {@link #setSharedItemEncoding(boolean)} or
+     * with the system property {@code invui.sharedItemEncoding}. If the system property is present,
+     * it overrides the value set using {@link #setSharedItemEncoding(boolean)}.
+     *
+     * @return Whether identically displayed items should be encoded only once.
+     */
+    public boolean isSharedItemEncoding() {
+        if (SHARED_ITEM_ENCODING_OVERRIDE != null)
+            return SHARED_ITEM_ENCODING_OVERRIDE;
+        return sharedItemEncoding;
+    }
+    
+    /**
+     * Sets whether items that are displayed identically to multiple players should be encoded only once.
+     * <p>
+     * By default, this is {@code false}. It can be changed using this method or
+     * with the system property {@code invui.sharedItemEncoding}. If the system property is present,
+     * it overrides the value set using this method.
+     *
+     * @param sharedItemEncoding Whether identically displayed items should be encoded only once.
+     * @see #isSharedItemEncoding()
+     */
+    public void setSharedItemEncoding(boolean sharedItemEncoding) {
+        this.sharedItemEncoding = sharedItemEncoding;
+    }
+    
+    /**
+     * Whether InvUI's packet handler should only be injected into the network pipeline of players
+     * while they have an open InvUI window, instead of for the entire session of every player.
+     * <p>
+     * By default, this is {@code false}. It can be changed using {@link #setLazyPacketHandlerInjection(boolean)} or
+     * with the system property {@code invui.lazyPacketHandlerInjection}. If the system property is present,
+     * it overrides the value set using {@link #setLazyPacketHandlerInjection(boolean)}.
+     *
+     * @return Whether the packet handler is injected lazily.
+     */
+    public boolean isLazyPacketHandlerInjection() {
+        if (LAZY_PACKET_HANDLER_INJECTION_OVERRIDE != null)
+            return LAZY_PACKET_HANDLER_INJECTION_OVERRIDE;
+        return lazyPacketHandlerInjection;
+    }
+    
+    /**
+     * Sets whether InvUI's packet handler should only be injected into the network pipeline of players
+     * while they have an open InvUI window, instead of for the entire session of every player.
+     * This should be configured before the first window is opened.
+     * <p>
+     * By default, this is {@code false}. It can be changed using this method or
+     * with the system property {@code invui.lazyPacketHandlerInjection}. If the system property is present,
+     * it overrides the value set using this method.
+     *
+     * @param lazyPacketHandlerInjection Whether the packet handler should be injected lazily.
+     */
+    public void setLazyPacketHandlerInjection(boolean lazyPacketHandlerInjection) {
+        this.lazyPacketHandlerInjection = lazyPacketHandlerInjection;
+    }
+    
+    /**
+     * Whether interactions with windows (clicks, closes, bundle selections, etc.) should be processed as soon as
+     * they are received, instead of in the next window tick. The resulting changes are also sent immediately.
+     * Periodic item updates are still performed during the window tick.
+     * <p>
+     * By default, this is {@code false}. It can be changed using {@link #setImmediateIncomingProcessing(boolean)} or
+     * with the system property {@code invui.immediateIncomingProcessing}. If the system property is present,
+     * it overrides the value set using {@link #setImmediateIncomingProcessing(boolean)}.
+     *
+     * @return Whether window interactions are processed immediately.
+     */
+    public boolean isImmediateIncomingProcessing() {
+        if (IMMEDIATE_INCOMING_PROCESSING_OVERRIDE != null)
+            return IMMEDIATE_INCOMING_PROCESSING_OVERRIDE;
+        return immediateIncomingProcessing;
+    }
+    
+    /**
+     * Sets whether interactions with windows (clicks, closes, bundle selections, etc.) should be processed as soon as
+     * they are received, instead of in the next window tick. Only affects windows opened afterward.
+     * <p>
+     * By default, this is {@code false}. It can be changed using this method or
+     * with the system property {@code invui.immediateIncomingProcessing}. If the system property is present,
+     * it overrides the value set using this method.
+     *
+     * @param immediateIncomingProcessing Whether window interactions should be processed immediately.
+     */
+    public void setImmediateIncomingProcessing(boolean immediateIncomingProcessing) {
+        this.immediateIncomingProcessing = immediateIncomingProcessing;
+    }
+    
+    /**
+     * Gets whether clicks on slots that cannot react to clicks, such as slots displaying an
+     * {@link xyz.xenondevs.invui.item.Item} that is not {@link xyz.xenondevs.invui.item.Item#isClickable() clickable},
+     * are rejected directly on the netty thread. Instead of processing such clicks in the next window tick,
+     * the client-side prediction is reverted by resending the affected slots and the cursor.
+     * <p>
+     * By default, this is {@code false}. It can be changed using {@link #setInertClickRejection(boolean)} or
+     * with the system property {@code invui.inertClickRejection}. If the system property is present,
+     * it overrides the value set using {@link #setInertClickRejection(boolean)}.
+     *
+     * @return Whether clicks on inert slots are rejected on the netty thread.
+     */
+    public boolean isInertClickRejection() {
+        if (INERT_CLICK_REJECTION_OVERRIDE != null)
+            return INERT_CLICK_REJECTION_OVERRIDE;
+        return inertClickRejection;
+    }
+    
+    /**
+     * Sets whether clicks on slots that cannot react to clicks should be rejected directly on the netty thread.
+     * Only affects windows opened afterward.
+     * <p>
+     * By default, this is {@code false}. It can be changed using this method or
+     * with the system property {@code invui.inertClickRejection}. If the system property is present,
+     * it overrides the value set using this method.
+     *
+     * @param inertClickRejection Whether clicks on inert slots should be rejected on the netty thread.
+     */
+    public void setInertClickRejection(boolean inertClickRejection) {
+        this.inertClickRejection = inertClickRejection;
+    }
+    
+    /**
+     * Gets the time in microseconds that windows may spend per tick rendering {@link xyz.xenondevs.invui.item.Item Items}
+     * while being opened. Once this budget is exceeded, the window is opened with the remaining item slots still
+     * showing their previous content (usually nothing), and these slots are rendered in the following ticks,
+     * again limited by this budget. A budget of {@code 0} disables progressive opening, i.e. all slots are
+     * rendered before the window is opened.
+     * <p>
+     * By default, this is {@code 0}. It can be changed using {@link #setProgressiveOpenBudget(int)} or
+     * with the system property {@code invui.progressiveOpenBudget}. If the system property is present,
+     * it overrides the value set using {@link #setProgressiveOpenBudget(int)}.
+     *
+     * @return The render budget per tick in microseconds, or {@code 0} if progressive opening is disabled.
+     */
+    public int getProgressiveOpenBudget() {
+        if (PROGRESSIVE_OPEN_BUDGET_OVERRIDE != null)
+            return PROGRESSIVE_OPEN_BUDGET_OVERRIDE;
+        return progressiveOpenBudget;
+    }
+    
+    /**
+     * Sets the time in microseconds that windows may spend per tick rendering {@link xyz.xenondevs.invui.item.Item Items}
+     * while being opened, see {@link #getProgressiveOpenBudget()}. Only affects windows opened afterward.
+     * <p>
+     * By default, this is {@code 0}. It can be changed using this method or
+     * with the system property {@code invui.progressiveOpenBudget}. If the system property is present,
+     * it overrides the value set using this method.
+     *
+     * @param progressiveOpenBudget The render budget per tick in microseconds, or {@code 0} to disable progressive opening.
+     * @throws IllegalArgumentException If the budget is negative
+     */
+    public void setProgressiveOpenBudget(int progressiveOpenBudget) {
+        if (progressiveOpenBudget < 0)
+            throw new IllegalArgumentException("Progressive open budget must not be negative: " + progressiveOpenBudget);
+        this.progressiveOpenBudget = progressiveOpenBudget;
+    }
+    
     /**
      * Adds a {@link Runnable} that is executed when the plugin is disabled.
      *
@@ -0,0 +1,269 @@
+package xyz.xenondevs.invui;
+
+import com.google.common.collect.MapMaker;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime counters of InvUI, intended for monitoring and performance tuning.
+ * <p>
+ * All counters are cumulative since server start or the last {@link #reset()}.
+ */
+public final class Metrics {
+    
+    private static final Metrics INSTANCE = new Metrics();
+    
+    private final LongAdder renderCacheHits = new LongAdder();
+    private final LongAdder renderCacheMisses = new LongAdder();
+    private final LongAdder deferredUpdates = new LongAdder();
+    private final LongAdder componentHashCacheHits = new LongAdder();
+    private final LongAdder componentHashCacheMisses = new LongAdder();
+    private final LongAdder componentHashCacheEvictions = new LongAdder();
+    private final LongAdder pongs = new LongAdder();
+    private final LongAdder pongRoundTripNanos = new LongAdder();
+    private final LongAdder rejectedClicks = new LongAdder();
+    private final LongAdder fullResyncs = new LongAdder();
+    private final LongAdder windowTakeovers = new LongAdder();
+    private final LongAdder progressiveSlots = new LongAdder();
+    private final LongAdder renderMemoHits = new LongAdder();
+    private final Map<Player, Double> smoothedPongRoundTripMillis = new MapMaker().weakKeys().makeMap();
+    
+    private Metrics() {}
+    
+    /**
+     * Gets the {@link Metrics} singleton instance.
+     *
+     * @return The {@link Metrics} singleton instance
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets the amount of item slot renders that were skipped, because the
+     * {@link xyz.xenondevs.invui.item.ItemProvider} returned the same item as during the last render.
+     *
+     * @return The amount of render cache hits
+     */
+    public long getRenderCacheHits() {
+        return renderCacheHits.sum();
+    }
+    
+    /**
+     * Gets the amount of item slot renders that could not be served from the render cache.
+     *
+     * @return The amount of render cache misses
+     */
+    public long getRenderCacheMisses() {
+        return renderCacheMisses.sum();
+    }
+    
+    /**
+     * Gets the ratio of {@link #getRenderCacheHits() render cache hits} to all item slot renders.
+     *
+     * @return The render cache hit rate in {@code [0, 1]}, or {@code 0} if nothing was rendered yet
+     */
+    public double getRenderCacheHitRate() {
+        long hits = getRenderCacheHits();
+        long total = hits + getRenderCacheMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+    
+    /**
+     * Gets the amount of window updates that were deferred, because the connection of the viewer was saturated.
+     *
+     * @return The amount of deferred window updates
+     */
+    public long getDeferredUpdates() {
+        return deferredUpdates.sum();
+    }
+    
+    /**
+     * Gets the amount of item component hashes, used for comparing client-side items, that were served from the cache.
+     *
+     * @return The amount of component hash cache hits
+     */
+    public long getComponentHashCacheHits() {
+        return componentHashCacheHits.sum();
+    }
+    
+    /**
+     * Gets the amount of item component hashes that had to be computed, because they were not cached.
+     *
+     * @return The amount of component hash cache misses
+     */
+    public long getComponentHashCacheMisses() {
+        return componentHashCacheMisses.sum();
+    }
+    
+    /**
+     * Gets the amount of item component hashes that were evicted from the cache to keep it within its size bound.
+     *
+     * @return The amount of component hash cache evictions
+     */
+    public long getComponentHashCacheEvictions() {
+        return componentHashCacheEvictions.sum();
+    }
+    
+    /**
+     * Gets the average time between sending a ping packet through an InvUI window and receiving the
+     * corresponding pong, over all players.
+     *
+     * @return The average pong round-trip time in milliseconds, or {@code 0} if no pongs were received yet
+     */
+    public double getAveragePongRoundTripTime() {
+        long count = pongs.sum();
+        return count == 0 ? 0 : pongRoundTripNanos.sum() / 1_000_000.0 / count;
+    }
+    
+    /**
+     * Gets the smoothed time between sending a ping packet through an InvUI window and receiving the
+     * corresponding pong for the given player.
+     * Pings are sent when the window state changes and are used to synchronize window-state-driven UIs.
+     *
+     * @param player The player
+     * @return The exponentially smoothed pong round-trip time in milliseconds, or {@code -1} if no pongs of that player were received yet
+     */
+    public double getPongRoundTripTime(Player player) {
+        return smoothedPongRoundTripMillis.getOrDefault(player, -1.0);
+    }
+    
+    /**
+     * Gets the amount of clicks on inert slots that were rejected on the netty thread,
+     * see {@link InvUI#isInertClickRejection()}.
+     *
+     * @return The amount of rejected clicks
+     */
+    public long getRejectedClicks() {
+        return rejectedClicks.sum();
+    }
+    
+    /**
+     * Gets the amount of synchronizations in which so many slots diverged from the client that
+     * the entire content of the window was resent instead of the individual slots.
+     *
+     * @return The amount of full resyncs
+     */
+    public long getFullResyncs() {
+        return fullResyncs.sum();
+    }
+    
+    /**
+     * Gets the amount of windows that were opened by taking over the screen of the previous window,
+     * i.e. without reopening the screen on the client.
+     *
+     * @return The amount of window takeovers
+     */
+    public long getWindowTakeovers() {
+        return windowTakeovers.sum();
+    }
+    
+    /**
+     * Gets the amount of item slots whose rendering was postponed to a later tick, because the
+     * {@link xyz.xenondevs.invui.InvUI#getProgressiveOpenBudget() progressive open budget} was exceeded.
+     *
+     * @return The amount of postponed slot renders
+     */
+    public long getProgressiveSlots() {
+        return progressiveSlots.sum();
+    }
+    
+    /**
+     * Gets the amount of item renders that were skipped because the same viewer-independent item was already
+     * rendered in the same locale for another window during the same tick.
+     *
+     * @return The amount of render memo hits
+     */
+    public long getRenderMemoHits() {
+        return renderMemoHits.sum();
+    }
+    
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        renderCacheHits.reset();
+        renderCacheMisses.reset();
+        deferredUpdates.reset();
+        componentHashCacheHits.reset();
+        componentHashCacheMisses.reset();
+        componentHashCacheEvictions.reset();
+        pongs.reset();
+        pongRoundTripNanos.reset();
+        smoothedPongRoundTripMillis.clear();
+        rejectedClicks.reset();
+        fullResyncs.reset();
+        windowTakeovers.reset();
+        progressiveSlots.reset();
+        renderMemoHits.reset();
+    }
+    
+    @ApiStatus.Internal
+    public void recordRenderCacheHit() {
+        renderCacheHits.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordRenderCacheMiss() {
+        renderCacheMisses.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordDeferredUpdate() {
+        deferredUpdates.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordComponentHashCacheHit() {
+        componentHashCacheHits.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordComponentHashCacheMiss() {
+        componentHashCacheMisses.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordComponentHashCacheEvictions(int count) {
+        componentHashCacheEvictions.add(count);
+    }
+    
+    @ApiStatus.Internal
+    public void recordPongRoundTripTime(Player player, long nanos) {
+        pongs.increment();
+        pongRoundTripNanos.add(nanos);
+        
+        // exponentially weighted moving average, like TCP's smoothed round-trip time
+        double millis = nanos / 1_000_000.0;
+        smoothedPongRoundTripMillis.merge(player, millis, (prev, sample) -> prev + (sample - prev) / 8);
+    }
+    
+    @ApiStatus.Internal
+    public void recordRejectedClick() {
+        rejectedClicks.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordFullResync() {
+        fullResyncs.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordWindowTakeover() {
+        windowTakeovers.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordProgressiveSlot() {
+        progressiveSlots.increment();
+    }
+    
+    @ApiStatus.Internal
+    public void recordRenderMemoHit() {
+        renderMemoHits.increment();
+    }
+    
+}
@@ -2,6 +2,11 @@ package xyz.xenondevs.invui.gui;
 
 import io.papermc.paper.datacomponent.DataComponentTypes;
 import io.papermc.paper.threadedregions.scheduler.EntityScheduler;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryAction;
@@ -43,10 +48,21 @@ non-sealed abstract class AbstractGui implements Gui {
     public static final boolean DEFAULT_IGNORE_OBSCURED_INVENTORY_SLOTS = true;
     public static final @Nullable ItemProvider DEFAULT_BACKGROUND = null;
     
+    private static final Inventory[] NO_INVENTORIES = new Inventory[0];
+    private static final Map<OperationCategory, Comparator<Inventory>> GUI_PRIORITY_ORDER = new EnumMap<>(OperationCategory.class);
+    private static final ThreadLocal<@Nullable ArrayList<Inventory>> inventoryLists = new ThreadLocal<>();
+    
+    static {
+        for (OperationCategory category : OperationCategory.values()) {
+            GUI_PRIORITY_ORDER.put(category, Comparator.<Inventory>comparingInt(inv -> inv.getGuiPriority(category)).reversed());
+        }
+    }
+    
     private final int width;
     private final int height;
     private final int size;
     private final @Nullable SlotElement[] slotElements;
+    private final InventoryLinkIndex inventoryLinks = new InventoryLinkIndex();
     private final List<Set<ObserverAtSlot>> observers;
     
     private final MutableProperty<Boolean> frozen;
@@ -146,7 +162,7 @@ non-sealed abstract class AbstractGui implements Gui {
     private void handleInvLeftClick(Click click, Inventory inventory, int slot) {
         Player player = click.player();
         ItemStack cursor = ItemUtils.takeUnlessEmpty(player.getItemOnCursor());
-        ItemStack clicked = inventory.getItem(slot);
+        ItemStack clicked = peekItem(inventory, slot);
         
         // nothing happens if both cursor and clicked stack are empty
         if (clicked == null && cursor == null) {
@@ -154,7 +170,7 @@ non-sealed abstract class AbstractGui implements Gui {
             return;
         }
         
-        UpdateReason updateReason = new PlayerUpdateReason.Click(player, click);
+        UpdateReason updateReason = createUpdateReason(inventory, click);
         
         if (cursor == null) {
             // if the cursor is empty, pick the stack up
@@ -162,8 +178,7 @@ non-sealed abstract class AbstractGui implements Gui {
                 return;
             
             int amount = -inventory.addItemAmount(updateReason, slot, -clicked.getAmount());
-            clicked.setAmount(amount);
-            player.setItemOnCursor(clicked);
+            player.setItemOnCursor(ItemUtils.cloneWithCount(clicked, amount));
         } else if (clicked != null && ItemUtils2.isBundle(cursor)) {
             // insert clicked item into bundle on cursor
             if (inventory.callClickEvent(slot, click, InventoryAction.PICKUP_SOME_INTO_BUNDLE))
@@ -171,8 +186,9 @@ non-sealed abstract class AbstractGui implements Gui {
             
             int toAdd = ItemUtils2.getMaxAmountToAddToBundle(cursor, clicked);
             toAdd = -inventory.addItemAmount(updateReason, slot, -toAdd);
-            clicked.setAmount(toAdd);
-            ItemUtils2.tryMoveIntoBundle(cursor, clicked); // writes back into clicked and cursor
+            ItemStack taken = clicked.clone();
+            taken.setAmount(toAdd);
+            ItemUtils2.tryMoveIntoBundle(cursor, taken); // writes back into taken and cursor
             player.setItemOnCursor(cursor);
         } else if (clicked != null && ItemUtils2.isBundle(clicked)) {
             // insert cursor item into clicked bundle
@@ -215,7 +231,7 @@ non-sealed abstract class AbstractGui implements Gui {
     private void handleInvRightClick(Click click, Inventory inventory, int slot) {
         Player player = click.player();
         ItemStack cursor = ItemUtils.takeUnlessEmpty(player.getItemOnCursor());
-        ItemStack clicked = inventory.getItem(slot);
+        ItemStack clicked = peekItem(inventory, slot);
         
         // nothing happens if both cursor and clicked stack are empty
         if (clicked == null && cursor == null) {
@@ -223,7 +239,7 @@ non-sealed abstract class AbstractGui implements Gui {
             return;
         }
         
-        UpdateReason updateReason = new PlayerUpdateReason.Click(player, click);
+        UpdateReason updateReason = createUpdateReason(inventory, click);
         
         if (cursor == null && ItemUtils2.isBundle(clicked)) {
             // take the selected item from the bundle
@@ -250,9 +266,7 @@ non-sealed abstract class AbstractGui implements Gui {
             
             int newCursorAmount = (int) Math.ceil(clicked.getAmount() / 2.0);
             newCursorAmount = -inventory.addItemAmount(updateReason, slot, -newCursorAmount);
-            ItemStack newCursor = clicked.clone();
-            newCursor.setAmount(newCursorAmount);
-            player.setItemOnCursor(newCursor);
+            player.setItemOnCursor(ItemUtils.cloneWithCount(clicked, newCursorAmount));
         } else if (clicked == null && ItemUtils2.isBundle(cursor)) {
             // if the player right-clicked on an empty slot with a bundle, place the first item from the bundle there
             if (inventory.callClickEvent(slot, click, InventoryAction.PLACE_FROM_BUNDLE))
@@ -291,7 +305,7 @@ non-sealed abstract class AbstractGui implements Gui {
     
     private void handleInvItemShift(Click click, Inventory inventory, int slot) {
         Player player = click.player();
-        ItemStack clicked = inventory.getItem(slot);
+        ItemStack clicked = peekItem(inventory, slot);
         
         if (clicked == null) {
             inventory.callClickEvent(slot, click, InventoryAction.NOTHING);
@@ -301,32 +315,42 @@ non-sealed abstract class AbstractGui implements Gui {
         if (inventory.callClickEvent(slot, click, InventoryAction.MOVE_TO_OTHER_INVENTORY))
             return;
         
-        UpdateReason updateReason = new PlayerUpdateReason.Click(player, click);
-        ItemPreUpdateEvent updateEvent = inventory.callPreUpdateEvent(updateReason, slot, clicked, null);
-        if (updateEvent.isCancelled())
-            return;
-        
         var window = WindowManager.getInstance().getOpenWindow(player);
         assert window != null;
         
         // move into the first inventory that accepts the item, sorted by priority
-        var inventories = window.getGuis().stream()
-            .flatMap(gui -> gui.getInventories(inventory).stream())
-            .sorted(Comparator.<Inventory>comparingInt(inv -> inv.getGuiPriority(OperationCategory.ADD)).reversed())
-            .toList();
-        
-        int leftOverAmount = putIntoFirstInventory(updateReason, clicked, inventories);
-        
-        ItemStack newStack = clicked.clone();
-        newStack.setAmount(leftOverAmount);
-        
-        inventory.forceSetItem(UpdateReason.SUPPRESSED, slot, newStack);
-        inventory.callPostUpdateEvent(updateReason, slot, clicked, newStack);
+        ArrayList<Inventory> inventories = borrowInventoryList();
+        try {
+            collectInventories(window, OperationCategory.ADD, inventories, new Inventory[] {inventory});
+            
+            boolean callEvents = inventory.hasEventHandlers();
+            UpdateReason updateReason = callEvents || hasEventHandlers(inventories)
+                ? new PlayerUpdateReason.Click(player, click)
+                : UpdateReason.SUPPRESSED;
+            
+            if (callEvents) {
+                ItemPreUpdateEvent updateEvent = inventory.callPreUpdateEvent(updateReason, slot, clicked, null);
+                if (updateEvent.isCancelled())
+                    return;
+            }
+            
+            int amount = clicked.getAmount();
+            int leftOverAmount = putIntoFirstInventory(updateReason, clicked, inventories);
+            if (leftOverAmount == amount && !callEvents)
+                return;
+            
+            ItemStack newStack = ItemUtils.cloneWithCount(clicked, leftOverAmount);
+            inventory.forceSetItem(UpdateReason.SUPPRESSED, slot, newStack);
+            if (callEvents)
+                inventory.callPostUpdateEvent(updateReason, slot, clicked, newStack);
+        } finally {
+            releaseInventoryList(inventories);
+        }
     }
     
     private void handleInvNumberKey(Click click, Inventory inventory, int slot) {
         Player player = click.player();
-        ItemStack clicked = inventory.getItem(slot);
+        ItemStack clicked = peekItem(inventory, slot);
         
         Window window = WindowManager.getInstance().getOpenWindow(player);
         assert window != null;
@@ -341,7 +365,7 @@ non-sealed abstract class AbstractGui implements Gui {
             if (inventory == otherInventory && slot == otherSlot)
                 return;
             
-            ItemStack hotbar = otherInventory.getItem(otherSlot);
+            ItemStack hotbar = peekItem(otherInventory, otherSlot);
             if (clicked == null && hotbar == null) {
                 inventory.callClickEvent(slot, click, InventoryAction.NOTHING);
                 return;
@@ -350,12 +374,17 @@ non-sealed abstract class AbstractGui implements Gui {
             if (inventory.callClickEvent(slot, click, InventoryAction.HOTBAR_SWAP))
                 return;
             
-            var updateReason = new PlayerUpdateReason.Click(click);
+            boolean callEvents = inventory.hasEventHandlers();
+            UpdateReason updateReason = callEvents || otherInventory.hasEventHandlers()
+                ? new PlayerUpdateReason.Click(click)
+                : UpdateReason.SUPPRESSED;
             
             // check if clicked inventory would allow hotbar swap
-            ItemPreUpdateEvent updateEvent = inventory.callPreUpdateEvent(updateReason, slot, clicked, hotbar);
-            if (updateEvent.isCancelled())
-                return;
+            if (callEvents) {
+                ItemPreUpdateEvent updateEvent = inventory.callPreUpdateEvent(updateReason, slot, clicked, hotbar);
+                if (updateEvent.isCancelled())
+                    return;
+            }
             
             // move clicked into hotbar, or abort if cancelled
             if (!otherInventory.setItem(updateReason, otherSlot, clicked))
@@ -363,14 +392,15 @@ non-sealed abstract class AbstractGui implements Gui {
             
             // move hotbar into clicked without firing pre update event
             inventory.forceSetItem(UpdateReason.SUPPRESSED, slot, hotbar);
-            inventory.callPostUpdateEvent(updateReason, slot, clicked, hotbar);
+            if (callEvents)
+                inventory.callPostUpdateEvent(updateReason, slot, clicked, hotbar);
         }
     }
     
     private void handleInvOffHandKey(Click click, Inventory inventory, int slot) {
         Player player = click.player();
         PlayerInventory playerInventory = player.getInventory();
-        ItemStack clicked = inventory.getItem(slot);
+        ItemStack clicked = peekItem(inventory, slot);
         ItemStack offhandItem = ItemUtils.takeUnlessEmpty(playerInventory.getItemInOffHand());
         
         if (clicked == null && offhandItem == null) {
@@ -381,12 +411,12 @@ non-sealed abstract class AbstractGui implements Gui {
         if (inventory.callClickEvent(slot, click, InventoryAction.HOTBAR_SWAP))
             return;
         
-        if (inventory.setItem(new PlayerUpdateReason.Click(click), slot, offhandItem))
+        if (inventory.setItem(createUpdateReason(inventory, click), slot, offhandItem))
             playerInventory.setItemInOffHand(clicked);
     }
     
     private void handleInvDrop(boolean ctrl, Click click, Inventory inventory, int slot) {
-        ItemStack clicked = inventory.getItem(slot);
+        ItemStack clicked = peekItem(inventory, slot);
         if (ItemUtils.isEmpty(clicked))
             return;
         
@@ -394,22 +424,26 @@ non-sealed abstract class AbstractGui implements Gui {
             return;
         
         Player player = click.player();
-        UpdateReason updateReason = new PlayerUpdateReason.Click(player, click);
+        UpdateReason updateReason = createUpdateReason(inventory, click);
+        boolean callEvents = updateReason != UpdateReason.SUPPRESSED;
         
         int initialDropCount = ctrl ? clicked.getAmount() : 1;
-        var initialNewItem = ItemUtils.cloneWithCount(clicked, clicked.getAmount() - initialDropCount);
-        var event = inventory.callPreUpdateEvent(updateReason, slot, clicked, initialNewItem);
-        if (event.isCancelled())
-            return;
+        var newItem = ItemUtils.cloneWithCount(clicked, clicked.getAmount() - initialDropCount);
+        if (callEvents) {
+            var event = inventory.callPreUpdateEvent(updateReason, slot, clicked, newItem);
+            if (event.isCancelled())
+                return;
+            newItem = event.getNewItem();
+        }
         
-        var newItem = event.getNewItem();
         int dropCount = clicked.getAmount() - (newItem != null ? newItem.getAmount() : 0);
         var toDrop = ItemUtils.cloneWithCount(clicked, dropCount);
         if (!InventoryUtils.dropItemLikePlayer(player, toDrop))
             return;
         
         inventory.forceSetItem(UpdateReason.SUPPRESSED, slot, newItem);
-        inventory.callPostUpdateEvent(updateReason, slot, clicked, newItem);
+        if (callEvents)
+            inventory.callPostUpdateEvent(updateReason, slot, clicked, newItem);
     }
     
     private void handleInvDoubleClick(Click click, Inventory clickedinventory, int clickedSlot) {
@@ -430,14 +464,17 @@ non-sealed abstract class AbstractGui implements Gui {
         ItemStack template = player.getItemOnCursor();
         
         // create a composite inventory consisting of all the gui's inventories and the player's inventory
-        List<? extends Inventory> inventories = window.getGuis().stream()
-            .flatMap(g -> g.getInventories().stream())
-            .sorted(Comparator.<Inventory>comparingInt(inv -> inv.getGuiPriority(OperationCategory.COLLECT)).reversed())
-            .toList();
-        Inventory inventory = new CompositeInventory(inventories);
+        ArrayList<Inventory> inventories = borrowInventoryList();
+        Inventory inventory;
+        try {
+            collectInventories(window, OperationCategory.COLLECT, inventories, NO_INVENTORIES);
+            inventory = new CompositeInventory(inventories);
+        } finally {
+            releaseInventoryList(inventories);
+        }
         
         // collect items from inventories until the cursor is full
-        UpdateReason updateReason = new PlayerUpdateReason.Click(player, click);
+        UpdateReason updateReason = createUpdateReason(inventory, click);
         int amount = inventory.collectSimilar(updateReason, template);
         
         // put collected items on cursor
@@ -447,12 +484,11 @@ non-sealed abstract class AbstractGui implements Gui {
     
     private void handleInvMiddleClick(Click click, Inventory inventory, int slot) {
         Player player = click.player();
-        ItemStack target = inventory.getItem(slot);
+        ItemStack target = peekItem(inventory, slot);
         if (player.getGameMode() == GameMode.CREATIVE && target != null && ItemUtils.isEmpty(player.getItemOnCursor())) {
             if (inventory.callClickEvent(slot, click, InventoryAction.CLONE_STACK))
                 return;
-            target.setAmount(target.getMaxStackSize());
-            player.setItemOnCursor(target);
+            player.setItemOnCursor(ItemUtils.cloneWithCount(target, target.getMaxStackSize()));
         } else {
             inventory.callClickEvent(slot, click, InventoryAction.NOTHING);
         }
@@ -491,55 +527,187 @@ non-sealed abstract class AbstractGui implements Gui {
     }
     
     /**
-     * Gets a map of all inventories and their visible slots in this gui, ignoring the specified inventories.
+     * Gets the {@link ItemStack} on the given slot of the inventory for read-only use during click handling.
+     * The backing {@link ItemStack} is used directly unless the inventory has event handlers, which receive
+     * and may retain the {@link ItemStack}.
      *
-     * @param ignored the inventories to ignore
-     * @return a map of all inventories and their visible slots
+     * @param inventory the inventory
+     * @param slot      the slot
+     * @return the item stack on that slot, which must not be modified
+     */
+    private static @Nullable ItemStack peekItem(Inventory inventory, int slot) {
+        return inventory.hasEventHandlers() ? inventory.getItem(slot) : inventory.getUnsafeItem(slot);
+    }
+    
+    /**
+     * Creates the {@link UpdateReason} for a click on the given inventory, or returns {@link UpdateReason#SUPPRESSED}
+     * if the inventory has no event handlers that could observe it.
+     *
+     * @param inventory the inventory
+     * @param click     the click
+     * @return the update reason to use
+     */
+    private static UpdateReason createUpdateReason(Inventory inventory, Click click) {
+        return inventory.hasEventHandlers() ? new PlayerUpdateReason.Click(click) : UpdateReason.SUPPRESSED;
+    }
+    
+    private static boolean hasEventHandlers(List<Inventory> inventories) {
+        for (Inventory inventory : inventories) {
+            if (inventory.hasEventHandlers())
+                return true;
+        }
+        return false;
+    }
+    
+    private static ArrayList<Inventory> borrowInventoryList() {
+        ArrayList<Inventory> list = inventoryLists.get();
+        if (list == null)
+            return new ArrayList<>();
+        
+        inventoryLists.set(null);
+        return list;
+    }
+    
+    private static void releaseInventoryList(ArrayList<Inventory> list) {
+        list.clear();
+        inventoryLists.set(list);
+    }
+    
+    /**
+     * Collects the inventories of all guis of the given window into the given list,
+     * sorted by their gui priority for the given operation category.
+     *
+     * @param window      the window
+     * @param category    the operation category
+     * @param inventories the list to add the inventories to
+     * @param ignored     the inventories to ignore
      */
-    private Map<? extends Inventory, Set<Integer>> getAllActiveInventorySlots(Inventory... ignored) {
+    private static void collectInventories(Window window, OperationCategory category, List<Inventory> inventories, Inventory[] ignored) {
+        for (Gui gui : window.getGuis()) {
+            if (gui instanceof AbstractGui abstractGui) {
+                abstractGui.addInventories(inventories, category, ignored);
+            } else {
+                inventories.addAll(gui.getInventories(ignored));
+            }
+        }
+        inventories.sort(GUI_PRIORITY_ORDER.get(category));
+    }
+    
+    /**
+     * Adds all inventories of this gui to the given list, sorted by their gui priority for the given category
+     * and ignoring the specified inventories. Unlike {@link #addInventories(List, Inventory[])}, this may reuse
+     * {@link ObscuredInventory ObscuredInventories} between calls, so they must not be exposed to api users.
+     *
+     * @param inventories the list to add the inventories to
+     * @param category    the operation category
+     * @param ignored     the inventories to ignore
+     */
+    private void addInventories(List<Inventory> inventories, OperationCategory category, Inventory[] ignored) {
+        flushSlotElements();
+        if (isFrozen())
+            return;
+        
+        if (inventoryLinks.hasGuiLinks()) {
+            addInventories(inventories, ignored);
+        } else {
+            inventoryLinks.addInventories(inventories, category, ignored, isIgnoreObscuredInventorySlots());
+        }
+    }
+    
+    /**
+     * Adds all inventories of this gui to the given list, ignoring the specified inventories.
+     * If {@link #isIgnoreObscuredInventorySlots()} is enabled, the inventories are wrapped in {@link ObscuredInventory ObscuredInventories}
+     * that only expose the visible slots.
+     *
+     * @param inventories the list to add the inventories to
+     * @param ignored     the inventories to ignore
+     */
+    private void addInventories(List<Inventory> inventories, Inventory[] ignored) {
+        flushSlotElements();
         if (isFrozen())
-            return Collections.emptySortedMap();
+            return;
+        
+        // without gui links, all visible inventory slots are indexed
+        if (!inventoryLinks.hasGuiLinks()) {
+            inventoryLinks.addInventories(inventories, ignored, isIgnoreObscuredInventorySlots());
+            return;
+        }
         
-        HashMap<Inventory, Set<Integer>> slots = new HashMap<>();
-        Set<Inventory> ignoredSet = Arrays.stream(ignored).collect(Collectors.toSet());
+        if (isIgnoreObscuredInventorySlots()) {
+            for (var entry : Reference2ObjectMaps.fastIterable(getAllActiveInventorySlots(ignored))) {
+                IntSet slots = entry.getValue();
+                inventories.add(new ObscuredInventory(entry.getKey(), slot -> !slots.contains(slot)));
+            }
+            return;
+        }
         
+        int start = inventories.size();
         slotLoop:
-        for (SlotElement element : getSlotElements()) {
-            if (element == null)
-                continue;
-            
-            // follow gui links to holding element, break out if any intermediate gui is frozen
-            while (element instanceof SlotElement.GuiLink(Gui gui, int slot)) {
-                if (gui.isFrozen())
-                    continue slotLoop;
+        for (SlotElement element : slotElements) {
+            element = getHoldingElement(element);
+            if (element instanceof SlotElement.InventoryLink invElement) {
+                Inventory inventory = invElement.inventory();
+                if (ArrayUtils.containsIdentity(ignored, inventory))
+                    continue;
+                
+                // inventories are usually linked to multiple slots, so check for duplicates added by this gui
+                for (int i = start; i < inventories.size(); i++) {
+                    if (inventories.get(i) == inventory)
+                        continue slotLoop;
+                }
                 
-                element = gui.getSlotElement(slot);
+                inventories.add(inventory);
             }
-            
+        }
+    }
+    
+    /**
+     * Gets a map of all inventories and their visible slots in this gui, ignoring the specified inventories.
+     *
+     * @param ignored the inventories to ignore
+     * @return a map of all inventories and their visible slots
+     */
+    private Reference2ObjectMap<Inventory, IntSet> getAllActiveInventorySlots(Inventory[] ignored) {
+        Reference2ObjectMap<Inventory, IntSet> slots = new Reference2ObjectLinkedOpenHashMap<>();
+        for (SlotElement element : slotElements) {
+            element = getHoldingElement(element);
             if (element instanceof SlotElement.InventoryLink invElement) {
                 Inventory inventory = invElement.inventory();
-                if (ignoredSet.contains(inventory))
+                if (ArrayUtils.containsIdentity(ignored, inventory))
                     continue;
                 
-                slots.computeIfAbsent(inventory, i -> new HashSet<>()).add(invElement.slot());
+                IntSet inventorySlots = slots.get(inventory);
+                if (inventorySlots == null) {
+                    inventorySlots = new IntOpenHashSet();
+                    slots.put(inventory, inventorySlots);
+                }
+                inventorySlots.add(invElement.slot());
             }
         }
         
         return slots;
     }
     
+    /**
+     * Follows gui links to the holding element of the given slot element.
+     *
+     * @param element the slot element
+     * @return the holding element, or null if there is none or any intermediate gui is frozen
+     */
+    private static @Nullable SlotElement getHoldingElement(@Nullable SlotElement element) {
+        while (element instanceof SlotElement.GuiLink(Gui gui, int slot)) {
+            if (gui.isFrozen())
+                return null;
+            
+            element = gui.getSlotElement(slot);
+        }
+        return element;
+    }
+    
     @Override
     public @Unmodifiable Collection<Inventory> getInventories(Inventory... ignored) {
-        if (!isIgnoreObscuredInventorySlots())
-            return Collections.unmodifiableCollection(getAllActiveInventorySlots(ignored).keySet());
-        
         ArrayList<Inventory> inventories = new ArrayList<>();
-        for (Map.Entry<? extends Inventory, Set<Integer>> entry : getAllActiveInventorySlots(ignored).entrySet()) {
-            Inventory inventory = entry.getKey();
-            Set<Integer> slots = entry.getValue();
-            inventories.add(new ObscuredInventory(inventory, slot -> !slots.contains(slot)));
-        }
-        
+        addInventories(inventories, ignored);
         return Collections.unmodifiableList(inventories);
     }
     //</editor-fold>
@@ -690,6 +858,8 @@ non-sealed abstract class AbstractGui implements Gui {
         
         var previousElement = getSlotElement(index);
         slotElements[index] = slotElement;
+        inventoryLinks.remove(previousElement);
+        inventoryLinks.add(slotElement);
         
         // replacing a bound item may require unbinding
         if (previousElement instanceof SlotElement.Item(BoundItem item)) {
@@ -720,6 +890,13 @@ non-sealed abstract class AbstractGui implements Gui {
         return slotElements[index];
     }
     
+    /**
+     * Applies pending batched updates to the slot elements of this gui.
+     */
+    void flushSlotElements() {
+        // no batched updates by default
+    }
+    
     @Override
     public boolean hasSlotElement(int index) {
         return getSlotElement(index) != null;
@@ -60,9 +60,14 @@ non-sealed abstract class AbstractPagedGui<C> extends AbstractGui implements Pag
     
     @Override
     public @Nullable SlotElement getSlotElement(int index) {
+        flushSlotElements();
+        return super.getSlotElement(index);
+    }
+    
+    @Override
+    void flushSlotElements() {
         content.flushDirty();
         page.flushDirty();
-        return super.getSlotElement(index);
     }
     
     @Override
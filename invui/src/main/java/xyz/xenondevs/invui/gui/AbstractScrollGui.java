@@ -66,9 +66,14 @@ non-sealed abstract class AbstractScrollGui<C> extends AbstractGui implements Sc
     
     @Override
     public @Nullable SlotElement getSlotElement(int index) {
+        flushSlotElements();
+        return super.getSlotElement(index);
+    }
+    
+    @Override
+    void flushSlotElements() {
         content.flushDirty();
         line.flushDirty();
-        return super.getSlotElement(index);
     }
     
     @Override
@@ -0,0 +1,184 @@
+package xyz.xenondevs.invui.gui;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import org.jspecify.annotations.Nullable;
+import xyz.xenondevs.invui.internal.util.ArrayUtils;
+import xyz.xenondevs.invui.internal.util.CollectionUtils;
+import xyz.xenondevs.invui.inventory.Inventory;
+import xyz.xenondevs.invui.inventory.ObscuredInventory;
+import xyz.xenondevs.invui.inventory.OperationCategory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally updated index of the {@link SlotElement.InventoryLink InventoryLinks} of a gui,
+ * mapping each linked {@link Inventory} to its linked slots.
+ * <p>
+ * For each {@link OperationCategory}, the linked inventories are additionally kept in gui priority order.
+ * Since gui priorities can change at any time without notice, this order is verified when it is queried and
+ * only re-sorted if necessary. {@link SlotElement.GuiLink GuiLinks} are only counted, as the slot elements
+ * of linked guis are not indexed.
+ */
+final class InventoryLinkIndex {
+    
+    private static final Map<OperationCategory, Comparator<Entry>> PRIORITY_ORDER = CollectionUtils.newEnumMap(
+        OperationCategory.class,
+        category -> Comparator.<Entry>comparingInt(entry -> entry.inventory.getGuiPriority(category)).reversed()
+    );
+    
+    private final Reference2ObjectLinkedOpenHashMap<Inventory, Entry> entries = new Reference2ObjectLinkedOpenHashMap<>();
+    private final Map<OperationCategory, List<Entry>> orders = CollectionUtils.newEnumMap(OperationCategory.class, _ -> new ArrayList<>());
+    private int guiLinkCount;
+    
+    /**
+     * Adds the given slot element to the index.
+     *
+     * @param element the slot element that was placed in the gui
+     */
+    void add(@Nullable SlotElement element) {
+        switch (element) {
+            case SlotElement.InventoryLink link -> {
+                Entry entry = entries.get(link.inventory());
+                if (entry == null) {
+                    entry = new Entry(link.inventory());
+                    entries.put(link.inventory(), entry);
+                    for (List<Entry> order : orders.values()) {
+                        order.add(entry);
+                    }
+                }
+                entry.addSlot(link.slot());
+            }
+            case SlotElement.GuiLink _ -> guiLinkCount++;
+            case SlotElement.Item _ -> {}
+            case null -> {}
+        }
+    }
+    
+    /**
+     * Removes the given slot element from the index.
+     *
+     * @param element the slot element that was removed from the gui
+     */
+    void remove(@Nullable SlotElement element) {
+        switch (element) {
+            case SlotElement.InventoryLink link -> {
+                Entry entry = entries.get(link.inventory());
+                if (entry != null && entry.removeSlot(link.slot())) {
+                    entries.remove(link.inventory());
+                    for (List<Entry> order : orders.values()) {
+                        order.remove(entry);
+                    }
+                }
+            }
+            case SlotElement.GuiLink _ -> guiLinkCount--;
+            case SlotElement.Item _ -> {}
+            case null -> {}
+        }
+    }
+    
+    /**
+     * Checks whether the gui contains {@link SlotElement.GuiLink GuiLinks}, in which case this index is incomplete.
+     *
+     * @return whether there are gui links
+     */
+    boolean hasGuiLinks() {
+        return guiLinkCount > 0;
+    }
+    
+    /**
+     * Adds all linked inventories to the given list in the order they were first linked.
+     *
+     * @param inventories the list to add the inventories to
+     * @param ignored     the inventories to ignore
+     * @param obscure     whether to wrap the inventories in new {@link ObscuredInventory ObscuredInventories} that only expose the linked slots
+     */
+    void addInventories(List<Inventory> inventories, Inventory[] ignored, boolean obscure) {
+        for (Entry entry : entries.values()) {
+            if (ArrayUtils.containsIdentity(ignored, entry.inventory))
+                continue;
+            
+            inventories.add(obscure ? entry.createObscured() : entry.inventory);
+        }
+    }
+    
+    /**
+     * Adds all linked inventories to the given list, sorted by their gui priority for the given category.
+     *
+     * @param inventories the list to add the inventories to
+     * @param category    the operation category
+     * @param ignored     the inventories to ignore
+     * @param obscure     whether to wrap the inventories in cached {@link ObscuredInventory ObscuredInventories} that only expose the linked slots
+     */
+    void addInventories(List<Inventory> inventories, OperationCategory category, Inventory[] ignored, boolean obscure) {
+        for (Entry entry : getOrder(category)) {
+            if (ArrayUtils.containsIdentity(ignored, entry.inventory))
+                continue;
+            
+            inventories.add(obscure ? entry.getObscured() : entry.inventory);
+        }
+    }
+    
+    private List<Entry> getOrder(OperationCategory category) {
+        List<Entry> order = orders.get(category);
+        for (int i = 1; i < order.size(); i++) {
+            if (order.get(i - 1).inventory.getGuiPriority(category) < order.get(i).inventory.getGuiPriority(category)) {
+                order.sort(PRIORITY_ORDER.get(category));
+                break;
+            }
+        }
+        return order;
+    }
+    
+    private static final class Entry {
+        
+        private final Inventory inventory;
+        /**
+         * Maps inventory slots to the amount of gui slots that are linked to them.
+         */
+        private final Int2IntOpenHashMap slotCounts = new Int2IntOpenHashMap();
+        private @Nullable ObscuredInventory obscured;
+        private int obscuredSize;
+        
+        Entry(Inventory inventory) {
+            this.inventory = inventory;
+        }
+        
+        void addSlot(int slot) {
+            if (slotCounts.addTo(slot, 1) == 0)
+                obscured = null;
+        }
+        
+        /**
+         * Removes a link to the given slot.
+         *
+         * @param slot the inventory slot
+         * @return whether the inventory is no longer linked at all
+         */
+        boolean removeSlot(int slot) {
+            if (slotCounts.addTo(slot, -1) == 1) {
+                slotCounts.remove(slot);
+                obscured = null;
+            }
+            return slotCounts.isEmpty();
+        }
+        
+        ObscuredInventory getObscured() {
+            // inventories may be resized, in which case the obscured inventory needs to be recreated
+            if (obscured == null || obscuredSize != inventory.getSize()) {
+                obscured = createObscured();
+                obscuredSize = inventory.getSize();
+            }
+            return obscured;
+        }
+        
+        ObscuredInventory createObscured() {
+            return new ObscuredInventory(inventory, slot -> !slotCounts.containsKey(slot));
+        }
+        
+    }
+    
+}
@@ -62,9 +62,14 @@ final class TabGuiImpl extends AbstractGui implements TabGui {
     
     @Override
     public @Nullable SlotElement getSlotElement(int index) {
+        flushSlotElements();
+        return super.getSlotElement(index);
+    }
+    
+    @Override
+    void flushSlotElements() {
         tabs.flushDirty();
         tab.flushDirty();
-        return super.getSlotElement(index);
     }
     
     @Override
@@ -0,0 +1,89 @@
+package xyz.xenondevs.invui.internal.menu;
+
+import com.google.common.hash.HashCode;
+import com.mojang.serialization.DynamicOps;
+import net.minecraft.core.component.TypedDataComponent;
+import net.minecraft.network.HashedPatchMap;
+import net.minecraft.network.HashedStack;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.HashOps;
+import org.jspecify.annotations.Nullable;
+import xyz.xenondevs.invui.Metrics;
+import xyz.xenondevs.invui.internal.util.WeakIdentityToIntMap;
+
+/**
+ * A global hash generator for {@link HashedStack} that caches component CRCs by the identity of the component value,
+ * which avoids expensive encoding and hashCode() calls. The cache is shared between all menus, safe to use from any thread
+ * and bounded in size.
+ * <p>
+ * The cache is split into stripes by identity hash code, each guarded by its own lock.
+ * Once a stripe is full, it is cleared entirely, which is counted as evictions in {@link Metrics}.
+ */
+final class ComponentHashCache implements HashedPatchMap.HashGenerator {
+    
+    private static final int STRIPE_COUNT = 16;
+    private static final int MAX_STRIPE_SIZE = 4096;
+    private static final ComponentHashCache INSTANCE = new ComponentHashCache();
+    
+    private final WeakIdentityToIntMap<Object>[] stripes;
+    private volatile @Nullable DynamicOps<HashCode> hashOps;
+    
+    @SuppressWarnings("unchecked")
+    private ComponentHashCache() {
+        stripes = new WeakIdentityToIntMap[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new WeakIdentityToIntMap<>();
+        }
+    }
+    
+    /**
+     * Gets the {@link ComponentHashCache} singleton instance.
+     *
+     * @return The {@link ComponentHashCache} singleton instance
+     */
+    static ComponentHashCache getInstance() {
+        return INSTANCE;
+    }
+    
+    @Override
+    public Integer apply(TypedDataComponent<?> tdc) {
+        var value = tdc.value();
+        var stripe = stripes[System.identityHashCode(value) & (STRIPE_COUNT - 1)];
+        
+        synchronized (stripe) {
+            var cached = stripe.get(value);
+            if (cached.isPresent()) {
+                Metrics.getInstance().recordComponentHashCacheHit();
+                return cached.getAsInt();
+            }
+        }
+        
+        // encode outside the lock, a concurrent miss for the same value computes the same hash
+        Metrics.getInstance().recordComponentHashCacheMiss();
+        int hash = tdc.encodeValue(getHashOps()).getOrThrow().asInt();
+        
+        synchronized (stripe) {
+            if (stripe.get(value).isEmpty()) {
+                int size = stripe.size();
+                if (size >= MAX_STRIPE_SIZE) {
+                    stripe.clear();
+                    Metrics.getInstance().recordComponentHashCacheEvictions(size);
+                }
+                stripe.putAssertAbsent(value, hash);
+            }
+        }
+        
+        return hash;
+    }
+    
+    private DynamicOps<HashCode> getHashOps() {
+        var hashOps = this.hashOps;
+        if (hashOps == null) {
+            hashOps = RegistryOps.create(HashOps.CRC32C_INSTANCE, MinecraftServer.getServer().registryAccess());
+            this.hashOps = hashOps;
+        }
+        return hashOps;
+    }
+    
+}
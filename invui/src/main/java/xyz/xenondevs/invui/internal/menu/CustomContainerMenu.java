@@ -1,30 +1,22 @@
 package xyz.xenondevs.invui.internal.menu;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.hash.HashCode;
-import com.mojang.serialization.DynamicOps;
 import io.papermc.paper.adventure.PaperAdventure;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import net.kyori.adventure.text.Component;
 import net.minecraft.core.component.DataComponentPatch;
 import net.minecraft.core.component.DataComponents;
-import net.minecraft.core.component.TypedDataComponent;
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.network.HashedPatchMap;
 import net.minecraft.network.HashedStack;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.common.ClientboundPingPacket;
 import net.minecraft.network.protocol.common.ServerboundPongPacket;
 import net.minecraft.network.protocol.game.*;
 import net.minecraft.resources.Identifier;
-import net.minecraft.resources.RegistryOps;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.util.HashOps;
 import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ContainerInput;
@@ -33,7 +25,6 @@ import net.minecraft.world.inventory.RemoteSlot;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.component.BundleContents;
-import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.entity.CraftPlayer;
 import org.bukkit.craftbukkit.inventory.CraftInventory;
 import org.bukkit.craftbukkit.inventory.CraftItemStack;
@@ -45,15 +36,19 @@ import org.bukkit.inventory.InventoryView;
 import org.jspecify.annotations.Nullable;
 import xyz.xenondevs.invui.Click;
 import xyz.xenondevs.invui.InvUI;
+import xyz.xenondevs.invui.Metrics;
 import xyz.xenondevs.invui.internal.network.PacketListener;
+import xyz.xenondevs.invui.internal.network.SharedItemEncoder;
 import xyz.xenondevs.invui.internal.util.*;
 import xyz.xenondevs.invui.window.Window;
 
-import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
 
 /**
  * A packet-based container menu.
@@ -71,37 +66,25 @@ public abstract class CustomContainerMenu {
     private static final int OFF_HAND_SLOT = 45;
     
     /**
-     * The timeout for {@link #pendingPongs}, in ms.
+     * The timeout for {@link #pendingPongs}, in ns.
      */
-    private static final long PING_TIMEOUT_MS = 10_000;
+    private static final long PING_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(10);
     
     /**
-     * Hash generator for {@link HashedStack}.
+     * The maximum amount of {@link #pendingPongs}.
      */
-    private static final HashedPatchMap.HashGenerator HASH_GENERATOR = new HashedPatchMap.HashGenerator() {
-        
-        private final LoadingCache<TypedDataComponent<?>, Integer> cache = CacheBuilder.newBuilder()
-            .expireAfterAccess(Duration.ofMinutes(5))
-            .build(new CacheLoader<>() {
-                
-                private final DynamicOps<HashCode> hashOps = RegistryOps.create(
-                    HashOps.CRC32C_INSTANCE,
-                    MinecraftServer.getServer().registryAccess()
-                );
-                
-                @Override
-                public Integer load(TypedDataComponent<?> key) {
-                    return key.encodeValue(hashOps).getOrThrow().asInt();
-                }
-                
-            });
-        
-        @Override
-        public Integer apply(TypedDataComponent<?> tdc) {
-            return cache.getUnchecked(tdc);
-        }
-        
-    };
+    private static final int MAX_PENDING_PONGS = 64;
+    
+    /**
+     * The percentage of slots that may diverge from the remote client during a full sweep before
+     * all slots are resent in a single content packet instead of individually.
+     */
+    private static final int MAX_DIVERGENCE_PERCENT = 50;
+    
+    /**
+     * Whether the server is running Folia, i.e. whether players are owned by different region threads.
+     */
+    private static final boolean FOLIA = isFolia();
     
     /**
      * An item stack used for marking a remote slot dirty.
@@ -114,52 +97,80 @@ public abstract class CustomContainerMenu {
             .build()
     );
     
-    /**
-     * A hash generator that caches component CRCs by their identity to avoid expensive hashCode() calls.
-     * Delegates to {@link #HASH_GENERATOR} on cache miss.
-     */
-    private final HashedPatchMap.HashGenerator hashGenerator = new HashedPatchMap.HashGenerator() {
-        
-        private final WeakIdentityToIntMap<Object> cache = new WeakIdentityToIntMap<>();
-        
-        @Override
-        public Integer apply(TypedDataComponent<?> tdc) {
-            assert Bukkit.isOwnedByCurrentRegion(player);
-            
-            var c = tdc.value();
-            var cachedValue = cache.get(c);
-            if (cachedValue.isPresent())
-                return cachedValue.getAsInt();
-            var value = HASH_GENERATOR.apply(tdc);
-            cache.putAssertAbsent(c, value);
-            return value;
-        }
-        
-    };
-    
     private final MenuType<?> menuType;
-    protected final int containerId;
+    protected volatile int containerId;
     protected final Player player;
     private final ServerPlayer serverPlayer;
     private @Nullable Window window;
-    private final ContainerMenuProxy proxy;
+    /**
+     * The proxy that is set as the container menu of the player while this menu is open, created with the
+     * container id this menu is opened with, which is only known once it is either opened or takes over another menu.
+     */
+    private @Nullable ContainerMenuProxy proxy;
     private Function<? super ItemStack, ? extends ItemStack> cursorVisualizer = Function.identity();
     
     private final ItemStack[] items;
     private ItemStack carried = ItemStack.EMPTY;
     private final RemoteSlot.Synchronized[] remoteSlots;
+    /**
+     * Slots whose local or remote item may have changed since the last synchronization.
+     */
+    private final BitSet dirtySlots;
+    /**
+     * Whether all slots need to be compared during the next synchronization, because the
+     * remote state has changed in ways not tracked by {@link #dirtySlots}.
+     */
+    private boolean requiresFullSweep;
     private final RemoteSlot.Synchronized remoteCarried = remoteSlot(ItemStack.EMPTY);
+    /**
+     * The item stacks that were last sent to the remote client, which are not modified after sending.
+     */
+    private final ItemStack[] sentItems;
+    private ItemStack sentCarried = ItemStack.EMPTY;
     private final RemoteSlot.Synchronized remoteOffHand;
+    /**
+     * Whether the off-hand item may have changed since it was last compared to {@link #remoteOffHand}.
+     */
+    private boolean offHandDirty = true;
+    private final LongConsumer inventoryListener = this::handleInventoryChange;
     protected final int[] dataSlots;
     protected final int[] remoteDataSlots;
     private int stateId;
     private Component title = Component.empty();
     
+    /**
+     * The content packet of the last {@link #sendTitle(Component) title update}, which is reused
+     * as long as {@link #items}, the visual carried item and {@link #stateId} remain unchanged.
+     */
+    private @Nullable ClientboundContainerSetContentPacket titleContentPacket;
+    private final @Nullable ItemStack[] titleContentItems;
+    private ItemStack titleContentCarried = ItemStack.EMPTY;
+    private int titleContentStateId;
+    
     private final IntSet dragSlots = new IntLinkedOpenHashSet();
     private ClickType dragMode = ClickType.LEFT;
     
-    protected final Queue<Packet<? super ServerGamePacketListener>> incoming = new ConcurrentLinkedQueue<>();
-    private final Map<Integer, PingData> pendingPongs = new ConcurrentHashMap<>();
+    protected volatile Queue<Packet<? super ServerGamePacketListener>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean incomingProcessingScheduled = new AtomicBoolean();
+    private final Runnable incomingCallback = this::scheduleIncomingProcessing;
+    private final PingTracker pendingPongs = new PingTracker(MAX_PENDING_PONGS, PING_TIMEOUT_NS);
+    /**
+     * The id of the ping that was sent after {@link #takeOver(CustomContainerMenu, Component) taking over} another menu.
+     * Until it is answered, clicks were meant for the previous menu.
+     */
+    private int takeoverPing;
+    private boolean awaitingTakeoverPong;
+    
+    /**
+     * The slots that cannot react to clicks, or null if {@link InvUI#isInertClickRejection() inert click rejection} is disabled.
+     */
+    private final @Nullable BitSet inertSlots;
+    private boolean inertStateDirty;
+    /**
+     * The last published remote state of the {@link #inertSlots}, used for rejecting clicks on the netty thread.
+     */
+    private volatile @Nullable InertState inertState;
+    private final Predicate<Packet<?>> inertClickFilter = this::rejectInertClick;
     
     /**
      * Creates a new {@link CustomContainerMenu} for the specified player.
@@ -176,13 +187,15 @@ public abstract class CustomContainerMenu {
         int size = InventoryUtils2.getSizeOf(menuType) + LOWER_INVENTORY_SIZE;
         this.items = ArrayUtils.newArray(ItemStack[]::new, size, ItemStack.EMPTY);
         this.remoteSlots = ArrayUtils.newArrayBy(RemoteSlot.Synchronized[]::new, size, _ -> remoteSlot(ItemStack.EMPTY));
+        this.dirtySlots = new BitSet(size);
+        this.titleContentItems = new ItemStack[size];
+        this.sentItems = ArrayUtils.newArray(ItemStack[]::new, size, ItemStack.EMPTY);
+        this.inertSlots = InvUI.getInstance().isInertClickRejection() ? new BitSet(size) : null;
         this.remoteOffHand = remoteSlot(serverPlayer.getOffhandItem());
         
         int dataSize = InventoryUtils2.getDataSlotCountOf(menuType);
         this.dataSlots = new int[dataSize];
         this.remoteDataSlots = new int[dataSize];
-        
-        this.proxy = new ContainerMenuProxy();
     }
     
     /**
@@ -196,6 +209,7 @@ public abstract class CustomContainerMenu {
             throw new IllegalArgumentException("Slot out of bounds: " + slot);
         
         items[slot] = item == null ? ItemStack.EMPTY : CraftItemStack.unwrap(item);
+        dirtySlots.set(slot);
     }
     
     public ItemStack getItem(int slot) {
@@ -223,15 +237,32 @@ public abstract class CustomContainerMenu {
         return CraftItemStack.asCraftMirror(carried);
     }
     
+    /**
+     * Sets whether the specified slot is inert, i.e. whether clicks on it have no effect.
+     * If {@link InvUI#isInertClickRejection() inert click rejection} is enabled, clicks that only
+     * affect inert slots are rejected on the netty thread.
+     *
+     * @param slot  The slot
+     * @param inert Whether the slot is inert
+     */
+    public void setInert(int slot, boolean inert) {
+        if (inertSlots == null || inertSlots.get(slot) == inert)
+            return;
+        
+        inertSlots.set(slot, inert);
+        inertStateDirty = true;
+    }
+    
     //<editor-fold desc="synchronization">
     private RemoteSlot.Synchronized remoteSlot(ItemStack initial) {
-        var slot = new RemoteSlot.Synchronized(hashGenerator);
+        var slot = new RemoteSlot.Synchronized(ComponentHashCache.getInstance());
         slot.force(initial);
         return slot;
     }
     
     protected void forceRemoteItem(int slot, ItemStack item) {
         remoteSlots[slot].force(item);
+        dirtySlots.set(slot);
     }
     
     /**
@@ -242,29 +273,37 @@ public abstract class CustomContainerMenu {
     public void sendChangesToRemote(int pingId) {
         var packets = new ArrayList<Packet<? super ClientGamePacketListener>>();
         
-        for (int i = 0; i < items.length; i++) {
-            var item = items[i];
-            var remoteSlot = remoteSlots[i];
-            if (!remoteSlot.matches(item)) {
-                packets.add(new ClientboundContainerSetSlotPacket(containerId, incrementStateId(), i, item.copy()));
-                remoteSlot.force(item);
+        if (requiresFullSweep) {
+            requiresFullSweep = false;
+            
+            // if most slots diverge, a single content packet is cheaper than individual slot packets
+            int diverging = 0;
+            for (int i = 0; i < items.length; i++) {
+                if (!remoteSlots[i].matches(items[i]))
+                    diverging++;
+            }
+            if (diverging > items.length * MAX_DIVERGENCE_PERCENT / 100) {
+                Metrics.getInstance().recordFullResync();
+                sendAllToRemote(pingId);
+                return;
+            }
+            
+            for (int i = 0; i < items.length; i++) {
+                sendSlotChange(i, packets);
+            }
+        } else {
+            for (int i = dirtySlots.nextSetBit(0); i >= 0; i = dirtySlots.nextSetBit(i + 1)) {
+                sendSlotChange(i, packets);
             }
         }
+        dirtySlots.clear();
         
-        var offHand = serverPlayer.getOffhandItem();
-        if (!remoteOffHand.matches(offHand)) {
-            packets.add(new ClientboundContainerSetSlotPacket(
-                serverPlayer.inventoryMenu.containerId,
-                serverPlayer.inventoryMenu.incrementStateId(),
-                OFF_HAND_SLOT,
-                serverPlayer.getOffhandItem()
-            ));
-            remoteOffHand.force(offHand);
-        }
+        sendOffHandChange(packets);
         
         var visualCarried = cursorVisualizer.apply(carried);
         if (!remoteCarried.matches(visualCarried)) {
-            packets.add(new ClientboundSetCursorItemPacket(visualCarried.copy()));
+            sentCarried = visualCarried.copy();
+            packets.add(new ClientboundSetCursorItemPacket(sentCarried));
             remoteCarried.force(visualCarried);
         }
         
@@ -279,17 +318,61 @@ public abstract class CustomContainerMenu {
             packets.add(createMaskedPingPacket(pingId));
         }
         
+        if (inertStateDirty || !packets.isEmpty())
+            publishInertState();
         PacketListener.getInstance().injectOutgoing(player, packets);
     }
     
+    /**
+     * Adds a packet that updates the off-hand slot to the given list, if the off-hand item is dirty and differs
+     * from the remote state.
+     *
+     * @param packets The list of packets
+     */
+    private void sendOffHandChange(List<? super ClientboundContainerSetSlotPacket> packets) {
+        if (!offHandDirty)
+            return;
+        
+        offHandDirty = false;
+        var offHand = serverPlayer.getOffhandItem();
+        if (!remoteOffHand.matches(offHand)) {
+            packets.add(new ClientboundContainerSetSlotPacket(
+                serverPlayer.inventoryMenu.containerId,
+                serverPlayer.inventoryMenu.incrementStateId(),
+                OFF_HAND_SLOT,
+                offHand
+            ));
+            remoteOffHand.force(offHand);
+        }
+    }
+    
+    /**
+     * Adds a slot update packet to the given list if the remote item of the given slot does not match the local one.
+     *
+     * @param slot    The slot
+     * @param packets The list of packets to add to
+     */
+    private void sendSlotChange(int slot, List<? super ClientboundContainerSetSlotPacket> packets) {
+        var item = items[slot];
+        var remoteSlot = remoteSlots[slot];
+        if (!remoteSlot.matches(item)) {
+            // shared item stacks are immutable and are not copied, which allows encoding them only once
+            var remoteItem = SharedItemEncoder.isShared(item) ? item : item.copy();
+            packets.add(new ClientboundContainerSetSlotPacket(containerId, incrementStateId(), slot, remoteItem));
+            remoteSlot.force(item);
+            sentItems[slot] = remoteItem;
+        }
+    }
+    
     /**
      * Sends all data to the remote client.
      *
      * @param pingId Optional ping id to also send a ping packet, or any negative number to not send a ping packet.
      */
     public void sendAllToRemote(int pingId) {
-        PacketListener.getInstance().injectOutgoing(player, createContainerInitPacketList(pingId));
+        var packets = createContainerInitPacketList(pingId);
         markRemoteSynced();
+        PacketListener.getInstance().injectOutgoing(player, packets);
     }
     
     /**
@@ -302,8 +385,53 @@ public abstract class CustomContainerMenu {
         
         var packets = createContainerInitPacketList(-1);
         packets.addFirst(new ClientboundOpenScreenPacket(containerId, menuType, PaperAdventure.asVanilla(title)));
+        markRemoteSynced();
         PacketListener.getInstance().injectOutgoing(player, packets);
+    }
+    
+    /**
+     * Changes the title of the open menu by sending the minimal sequence of packets required to reopen the menu:
+     * The screen open packet, the content packet, which is reused if the content did not change since the last
+     * title update, and the data slots. Unlike {@link #sendOpenPacket(Component)}, the off-hand slot
+     * is only sent if it changed, as it is not affected by reopening the menu.
+     *
+     * @param title The new title of the inventory
+     */
+    public void sendTitle(Component title) {
+        this.title = title;
+        
+        var packets = new ArrayList<Packet<? super ClientGamePacketListener>>();
+        packets.add(new ClientboundOpenScreenPacket(containerId, menuType, PaperAdventure.asVanilla(title)));
+        packets.add(getTitleContentPacket());
+        for (int i = 0; i < dataSlots.length; i++) {
+            packets.add(new ClientboundContainerSetDataPacket(containerId, i, dataSlots[i]));
+        }
+        sendOffHandChange(packets);
         markRemoteSynced();
+        PacketListener.getInstance().injectOutgoing(player, packets);
+    }
+    
+    private ClientboundContainerSetContentPacket getTitleContentPacket() {
+        var visualCarried = cursorVisualizer.apply(carried);
+        if (titleContentPacket != null
+            && titleContentStateId == stateId
+            && ArrayUtils.identityEquals(items, titleContentItems)
+            && ItemStack.matches(visualCarried, titleContentCarried)
+        ) {
+            return titleContentPacket;
+        }
+        
+        System.arraycopy(items, 0, titleContentItems, 0, items.length);
+        titleContentCarried = visualCarried.copy();
+        sentCarried = visualCarried.copy();
+        titleContentPacket = new ClientboundContainerSetContentPacket(
+            containerId,
+            incrementStateId(),
+            copyItemsForRemote(),
+            sentCarried
+        );
+        titleContentStateId = stateId;
+        return titleContentPacket;
     }
     
     /**
@@ -314,11 +442,12 @@ public abstract class CustomContainerMenu {
      */
     private List<Packet<? super ClientGamePacketListener>> createContainerInitPacketList(int pingId) {
         var packets = new ArrayList<Packet<? super ClientGamePacketListener>>();
+        sentCarried = cursorVisualizer.apply(carried).copy();
         packets.add(new ClientboundContainerSetContentPacket(
             containerId,
             incrementStateId(),
-            Arrays.stream(items).map(ItemStack::copy).toList(),
-            cursorVisualizer.apply(carried)
+            copyItemsForRemote(),
+            sentCarried
         ));
         
         // off-hand
@@ -339,15 +468,44 @@ public abstract class CustomContainerMenu {
         return packets;
     }
     
+    /**
+     * Copies all {@link #items} into {@link #sentItems}.
+     *
+     * @return An immutable list of the copied items
+     */
+    private List<ItemStack> copyItemsForRemote() {
+        for (int i = 0; i < items.length; i++) {
+            sentItems[i] = items[i].copy();
+        }
+        return List.of(sentItems);
+    }
+    
     /**
      * Marks the current state as synced with the remote client.
+     * Needs to be called before the packets of the synchronization are sent, see {@link #publishInertState()}.
      */
     private void markRemoteSynced() {
         for (int i = 0; i < items.length; i++) {
             remoteSlots[i].force(items[i]);
         }
+        dirtySlots.clear();
+        requiresFullSweep = false;
         remoteCarried.force(cursorVisualizer.apply(carried));
         System.arraycopy(dataSlots, 0, remoteDataSlots, 0, dataSlots.length);
+        publishInertState();
+    }
+    
+    /**
+     * Publishes the remote state of the {@link #inertSlots} for {@link #rejectInertClick(Packet)}.
+     * This needs to happen before the packets that lead to this state are sent, so that a click that was
+     * rejected based on an outdated state is always followed by the packets that update it.
+     */
+    private void publishInertState() {
+        inertStateDirty = false;
+        if (inertSlots == null)
+            return;
+        
+        inertState = new InertState((BitSet) inertSlots.clone(), sentItems.clone(), sentCarried, stateId);
     }
     //</editor-fold>
     
@@ -358,6 +516,11 @@ public abstract class CustomContainerMenu {
      */
     public void open(Component title) {
         var pl = PacketListener.getInstance();
+        if (InvUI.getInstance().isImmediateIncomingProcessing())
+            pl.setIncomingCallback(player, incomingCallback);
+        if (inertSlots != null)
+            pl.setIncomingFilter(player, inertClickFilter);
+        InventoryTracker.of(player).addListener(inventoryListener);
         pl.redirectIncoming(player, ServerboundContainerButtonClickPacket.class, incoming);
         pl.redirectIncoming(player, ServerboundContainerClickPacket.class, incoming);
         pl.redirectIncoming(player, ServerboundContainerClosePacket.class, incoming);
@@ -368,15 +531,116 @@ public abstract class CustomContainerMenu {
         pl.discard(player, ClientboundContainerSetDataPacket.class);
         pl.discard(player, ClientboundContainerSetSlotPacket.class);
         
+        proxy = new ContainerMenuProxy();
         this.serverPlayer.containerMenu = proxy;
+        awaitingTakeoverPong = false;
         sendOpenPacket(title);
     }
     
+    /**
+     * Checks whether this menu can {@link #takeOver(CustomContainerMenu, Component) take over} the given menu.
+     *
+     * @param previous The menu that is currently open
+     * @return Whether this menu can take over the given menu
+     */
+    public boolean canTakeOver(CustomContainerMenu previous) {
+        return supportsTakeover()
+               && previous.getClass() == getClass()
+               && previous.menuType == menuType
+               && previous.player == player
+               && previous.proxy != null
+               && serverPlayer.containerMenu == previous.proxy;
+    }
+    
+    /**
+     * Whether this menu can take over the screen of another menu of the same class and {@link MenuType}.
+     * This is only the case if the client-side state of the screen consists of nothing but the title, the slots,
+     * the cursor and the data slots.
+     *
+     * @return Whether this menu supports taking over other menus
+     */
+    protected boolean supportsTakeover() {
+        return false;
+    }
+    
+    /**
+     * Opens this menu for the player by taking over the screen of the given menu, which is currently open, instead of
+     * opening a new screen. The container id, the packet redirects and the remote state of the previous menu are adopted,
+     * so only the title (if changed) and the slots that differ are sent.
+     * <p>
+     * The previous menu is not {@link #handleClosed() closed}, but {@link #handleTakenOver() cleaned up} and must no longer be used.
+     *
+     * @param previous The menu to take over, see {@link #canTakeOver(CustomContainerMenu)}
+     * @param title    The title of the inventory
+     */
+    public void takeOver(CustomContainerMenu previous, Component title) {
+        // adopt the container, the redirects of the previous menu point to its incoming queue
+        containerId = previous.containerId;
+        incoming = previous.incoming;
+        stateId = previous.stateId;
+        
+        var pl = PacketListener.getInstance();
+        if (InvUI.getInstance().isImmediateIncomingProcessing())
+            pl.setIncomingCallback(player, incomingCallback);
+        if (inertSlots != null)
+            pl.setIncomingFilter(player, inertClickFilter);
+        InventoryTracker.of(player).addListener(inventoryListener); // added before the previous listener is removed to keep the tracker running
+        previous.handleTakenOver();
+        
+        // adopt the remote state, so that the full sweep only sends the differences
+        for (int i = 0; i < remoteSlots.length; i++) {
+            remoteSlots[i].copyFrom(previous.remoteSlots[i]);
+        }
+        System.arraycopy(previous.sentItems, 0, sentItems, 0, sentItems.length);
+        remoteCarried.copyFrom(previous.remoteCarried);
+        sentCarried = previous.sentCarried;
+        remoteOffHand.copyFrom(previous.remoteOffHand);
+        System.arraycopy(previous.remoteDataSlots, 0, remoteDataSlots, 0, remoteDataSlots.length);
+        requiresFullSweep = true;
+        
+        // the proxy of the previous menu delegates to the previous menu, so a new one is created with the adopted id
+        proxy = new ContainerMenuProxy();
+        this.serverPlayer.containerMenu = proxy;
+        if (title.equals(previous.title)) {
+            this.title = title;
+            sendChangesToRemote(-1);
+        } else {
+            sendTitle(title);
+        }
+        
+        // clicks that the client sent before receiving the new state were meant for the previous menu
+        takeoverPing = MathUtils.RANDOM.nextInt();
+        awaitingTakeoverPong = true;
+        pl.injectOutgoing(player, new ClientboundPingPacket(takeoverPing));
+        
+        Metrics.getInstance().recordWindowTakeover();
+    }
+    
+    /**
+     * Runs cleanup logic after this menu has been {@link #takeOver(CustomContainerMenu, Component) taken over} by another menu.
+     * Unlike {@link #handleClosed()}, the redirects and discard rules remain registered, as they are adopted by the other menu.
+     */
+    private void handleTakenOver() {
+        var pl = PacketListener.getInstance();
+        pl.removeIncomingCallback(player, incomingCallback);
+        pl.removeIncomingFilter(player, inertClickFilter);
+        InventoryTracker.of(player).removeListener(inventoryListener);
+        
+        // the window states of the pending pings belong to the window of this menu, pongs are ignored by the other menu
+        synchronized (pendingPongs) {
+            pendingPongs.clear();
+        }
+        awaitingTakeoverPong = false;
+    }
+    
     /**
      * Runs cleanup logic after this menu has been closed.
      */
     public void handleClosed() {
         var pl = PacketListener.getInstance();
+        pl.removeIncomingCallback(player, incomingCallback);
+        pl.removeIncomingFilter(player, inertClickFilter);
+        InventoryTracker.of(player).removeListener(inventoryListener);
         pl.removeRedirect(player, ServerboundContainerButtonClickPacket.class);
         pl.removeRedirect(player, ServerboundContainerClickPacket.class);
         pl.removeRedirect(player, ServerboundContainerClosePacket.class);
@@ -396,6 +660,16 @@ public abstract class CustomContainerMenu {
         transferRemoteSlot(remoteCarried, serverPlayer.inventoryMenu.remoteSlots.get(OFF_HAND_SLOT));
     }
     
+    /**
+     * Marks the off-hand item dirty if it was changed, called by the {@link InventoryTracker} of the player.
+     *
+     * @param changedSlots The changed slots of the player inventory
+     */
+    private void handleInventoryChange(long changedSlots) {
+        if ((changedSlots & 1L << InventoryTracker.OFF_HAND_SLOT) != 0)
+            offHandDirty = true;
+    }
+    
     private void transferRemoteSlot(RemoteSlot.Synchronized from, RemoteSlot to) {
         if (to instanceof RemoteSlot.Synchronized toSync) {
             toSync.copyFrom(from);
@@ -410,11 +684,9 @@ public abstract class CustomContainerMenu {
     private ClientboundPingPacket createMaskedPingPacket(int id) {
         // generate new ping id, remember mapping and timestamp
         int ping = MathUtils.RANDOM.nextInt();
-        pendingPongs.put(ping, new PingData(id, System.currentTimeMillis()));
-        
-        // clear timed out pings
-        long now = System.currentTimeMillis();
-        pendingPongs.values().removeIf(data -> now - data.timestamp() > PING_TIMEOUT_MS);
+        synchronized (pendingPongs) {
+            pendingPongs.add(ping, id, System.nanoTime());
+        }
         
         return new ClientboundPingPacket(ping);
     }
@@ -436,6 +708,15 @@ public abstract class CustomContainerMenu {
         return updateType;
     }
     
+    /**
+     * Checks whether there are queued interaction packets that have not been {@link #processIncoming() processed} yet.
+     *
+     * @return Whether there are queued incoming packets
+     */
+    public boolean hasIncoming() {
+        return !incoming.isEmpty();
+    }
+    
     /**
      * Processes a single incoming packet.
      *
@@ -445,14 +726,19 @@ public abstract class CustomContainerMenu {
     protected UpdateType processPacket(Packet<? super ServerGamePacketListener> packet) {
         return switch (packet) {
             case ServerboundContainerButtonClickPacket p when p.containerId() == containerId -> handleButtonClick(p.buttonId());
-            case ServerboundContainerClickPacket p when p.containerId() == containerId -> handleClick(p);
+            case ServerboundContainerClickPacket p when p.containerId() == containerId ->
+                awaitingTakeoverPong ? handleStaleClick(p) : handleClick(p);
             case ServerboundSelectBundleItemPacket p -> handleBundleSelect(p);
             case ServerboundContainerClosePacket p when p.getContainerId() == containerId -> {
                 handleClose(p);
                 yield UpdateType.NONE;
             }
             case ServerboundPongPacket p -> {
-                handlePong(p);
+                if (awaitingTakeoverPong && p.getId() == takeoverPing) {
+                    awaitingTakeoverPong = false;
+                } else {
+                    handlePong(p);
+                }
                 yield UpdateType.NONE;
             }
             default -> throw new UnsupportedOperationException("Unknown packet type: " + packet.getClass().getName());
@@ -465,9 +751,105 @@ public abstract class CustomContainerMenu {
      * @param packet The packet that was received
      */
     private void handlePong(ServerboundPongPacket packet) {
-        var data = pendingPongs.remove(packet.getId());
-        if (data != null) // ignore unknown pongs, unrelated to InvUI
-            getWindowEvents().handlePong(data.id());
+        int id;
+        long timestamp;
+        synchronized (pendingPongs) {
+            int i = pendingPongs.remove(packet.getId());
+            if (i == -1) // ignore unknown pongs, unrelated to InvUI
+                return;
+            id = pendingPongs.getData(i);
+            timestamp = pendingPongs.getTimestamp(i);
+        }
+        
+        Metrics.getInstance().recordPongRoundTripTime(player, System.nanoTime() - timestamp);
+        getWindowEvents().handlePong(id);
+    }
+    
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Schedules processing of the {@link #incoming} packets on the thread that owns the player, as soon as possible.
+     * On Paper, the task is executed by the server thread between ticks, like vanilla packet handling.
+     * On Folia, it is executed in the next tick of the region that owns the player.
+     */
+    private void scheduleIncomingProcessing() {
+        if (!incomingProcessingScheduled.compareAndSet(false, true))
+            return;
+        
+        Runnable task = () -> {
+            incomingProcessingScheduled.set(false);
+            if (window != null)
+                getWindowEvents().handleIncoming();
+        };
+        
+        if (FOLIA) {
+            player.getScheduler().run(InvUI.getInstance().getPlugin(), _ -> task.run(), null);
+        } else {
+            MinecraftServer.getServer().execute(task);
+        }
+    }
+    
+    /**
+     * Rejects the given packet if it is a click that only affects {@link #inertSlots inert slots}, by reverting
+     * the client-side prediction with the affected slots and the cursor of the last published remote state.
+     * Called on the netty thread, before the packet is added to the {@link #incoming} queue.
+     *
+     * @param packet The incoming packet
+     * @return Whether the packet was rejected
+     */
+    private boolean rejectInertClick(Packet<?> packet) {
+        if (!(packet instanceof ServerboundContainerClickPacket click) || click.containerId() != containerId)
+            return false;
+        
+        // only reject if the client is up to date and no earlier interactions are pending, as those may change the state
+        var state = inertState;
+        if (state == null || click.stateId() != state.stateId() || !incoming.isEmpty() || !isRejectable(click))
+            return false;
+        
+        int clickedSlot = click.slotNum();
+        if (!state.isInert(clickedSlot))
+            return false;
+        IntIterator it = click.changedSlots().keySet().iterator();
+        while (it.hasNext()) {
+            if (!state.isInert(it.nextInt()))
+                return false;
+        }
+        
+        var packets = new ArrayList<Packet<? super ClientGamePacketListener>>();
+        packets.add(new ClientboundContainerSetSlotPacket(containerId, state.stateId(), clickedSlot, state.items()[clickedSlot]));
+        it = click.changedSlots().keySet().iterator();
+        while (it.hasNext()) {
+            int slot = it.nextInt();
+            if (slot != clickedSlot)
+                packets.add(new ClientboundContainerSetSlotPacket(containerId, state.stateId(), slot, state.items()[slot]));
+        }
+        packets.add(new ClientboundSetCursorItemPacket(state.carried()));
+        PacketListener.getInstance().injectOutgoing(player, packets);
+        
+        Metrics.getInstance().recordRejectedClick();
+        return true;
+    }
+    
+    /**
+     * Checks whether the given click can be rejected on the netty thread if it only affects inert slots.
+     * Menus in which the client predicts more than slot and cursor changes need to exclude the affected clicks.
+     *
+     * @param packet The click packet
+     * @return Whether the click can be rejected
+     */
+    protected boolean isRejectable(ServerboundContainerClickPacket packet) {
+        return switch (packet.containerInput()) {
+            case QUICK_CRAFT -> false; // drags span multiple packets
+            case SWAP -> packet.buttonNum() != 40; // the off-hand slot is not part of this menu
+            default -> true;
+        };
     }
     
     /**
@@ -492,26 +874,56 @@ public abstract class CustomContainerMenu {
      * @return The kind of update that is required after processing this packet
      */
     protected UpdateType handleClick(ServerboundContainerClickPacket packet) {
-        boolean requiresFullUpdate = packet.stateId() != stateId;
+        // client-side prediction may have changed any slot
+        if (packet.stateId() != stateId || !packet.changedSlots().isEmpty())
+            requiresFullSweep = true;
         
         // update remote slots
         for (Int2ObjectMap.Entry<HashedStack> entry : packet.changedSlots().int2ObjectEntrySet()) {
             int slot = entry.getIntKey();
             HashedStack stack = entry.getValue();
-            if (slot < 0 || slot > remoteSlots.length)
+            if (slot < 0 || slot >= remoteSlots.length)
                 continue;
             remoteSlots[slot].receive(stack);
         }
         remoteCarried.force(DIRTY_MARKER);
         
+        // The client clicked based on an outdated state, but the slots it changed are known from the reported hashes.
+        // Slots that were not changed by the client are either in sync or will be updated by packets that are still in flight.
+        // Only the diverging slots are resent in the full sweep, and the clicked slot is always resent so that the
+        // state id of the client is updated. If most slots diverge, the sweep falls back to resending everything.
+        if (packet.stateId() != stateId) {
+            int slot = packet.slotNum();
+            if (slot >= 0 && slot < remoteSlots.length)
+                remoteSlots[slot].force(DIRTY_MARKER);
+        }
+        
         if (packet.containerInput() == ContainerInput.QUICK_CRAFT) {
-            if (!handleDragClick(packet))
-                return requiresFullUpdate ? UpdateType.FULL : UpdateType.DIRTY;
+            handleDragClick(packet);
         } else {
             handleNormalClick(packet);
         }
         
-        return requiresFullUpdate ? UpdateType.FULL : UpdateType.DIRTY;
+        return UpdateType.DIRTY;
+    }
+    
+    /**
+     * Handles a click that the client sent before it received the state of this menu after it
+     * {@link #takeOver(CustomContainerMenu, Component) took over} the previous menu.
+     * Since the click was meant for the previous menu, it is not executed, but the client-side prediction is reverted.
+     *
+     * @param packet The packet that was received
+     * @return The kind of update that is required after processing this packet
+     */
+    private UpdateType handleStaleClick(ServerboundContainerClickPacket packet) {
+        requiresFullSweep = true;
+        for (Int2ObjectMap.Entry<HashedStack> entry : packet.changedSlots().int2ObjectEntrySet()) {
+            int slot = entry.getIntKey();
+            if (slot >= 0 && slot < remoteSlots.length)
+                remoteSlots[slot].receive(entry.getValue());
+        }
+        remoteCarried.force(DIRTY_MARKER);
+        return UpdateType.DIRTY;
     }
     
     /**
@@ -541,6 +953,7 @@ public abstract class CustomContainerMenu {
                 }
                 case 40 -> {
                     remoteOffHand.force(DIRTY_MARKER);
+                    offHandDirty = true;
                     yield ClickType.SWAP_OFFHAND;
                 }
                 default -> ClickType.UNKNOWN;
@@ -637,9 +1050,13 @@ public abstract class CustomContainerMenu {
             return UpdateType.NONE;
         
         // update remote item to expected selected item index
+        // (copy-on-write, as the item stack may be shared between multiple menus)
         var mutableBundleContents = new BundleContents.Mutable(bundleContents);
         mutableBundleContents.toggleSelectedItem(packet.selectedItemIndex());
+        bundle = bundle.copy();
+        items[slot] = bundle;
         bundle.set(DataComponents.BUNDLE_CONTENTS, mutableBundleContents.toImmutable());
+        dirtySlots.set(slot);
         
         // let window handle the selection
         runInInteractionContext(() -> getWindowEvents().handleBundleSelect(slot, packet.selectedItemIndex()));
@@ -712,6 +1129,22 @@ public abstract class CustomContainerMenu {
         this.remoteCarried.force(DIRTY_MARKER);
     }
     
+    /**
+     * An immutable snapshot of the remote state of the inert slots.
+     *
+     * @param slots   The inert slots
+     * @param items   The items that were sent to the remote client
+     * @param carried The carried item that was sent to the remote client
+     * @param stateId The state id of the remote client
+     */
+    private record InertState(BitSet slots, ItemStack[] items, ItemStack carried, int stateId) {
+        
+        boolean isInert(int slot) {
+            return slot >= 0 && slot < items.length && slots.get(slot);
+        }
+        
+    }
+    
     /**
      * A proxy {@link AbstractContainerMenu} for intercepting carried item change and general bukkit interoperability.
      */
@@ -733,6 +1166,16 @@ public abstract class CustomContainerMenu {
             carried = stack;
         }
         
+        @Override
+        public int getStateId() {
+            return CustomContainerMenu.this.stateId;
+        }
+        
+        @Override
+        public int incrementStateId() {
+            return CustomContainerMenu.this.incrementStateId();
+        }
+        
         @Override
         public void broadcastCarriedItem() {
             // handled through window tick
@@ -21,4 +21,9 @@ public class CustomPlainMenu extends CustomContainerMenu {
         super(InventoryUtils2.getMatchingGenericMenuType(width, height), player);
     }
     
+    @Override
+    protected boolean supportsTakeover() {
+        return true;
+    }
+    
 }
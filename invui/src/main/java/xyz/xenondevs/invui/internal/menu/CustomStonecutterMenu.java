@@ -81,6 +81,12 @@ public class CustomStonecutterMenu extends CustomContainerMenu {
         return UpdateType.DIRTY.or(updateType);
     }
     
+    @Override
+    protected boolean isRejectable(ServerboundContainerClickPacket packet) {
+        // the client resets the selected recipe when the input changes, which is only corrected by a regular click handling
+        return false;
+    }
+    
     @Override
     public void setItem(int slot, org.bukkit.inventory.@Nullable ItemStack item) {
         super.setItem(slot, item);
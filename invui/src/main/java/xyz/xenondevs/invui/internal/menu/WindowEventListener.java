@@ -17,4 +17,10 @@ public interface WindowEventListener {
     
     void handlePong(int id);
     
+    /**
+     * Processes incoming packets immediately instead of in the next window tick
+     * and sends the resulting changes, see {@link xyz.xenondevs.invui.InvUI#isImmediateIncomingProcessing()}.
+     */
+    void handleIncoming();
+    
 }
@@ -0,0 +1,73 @@
+package xyz.xenondevs.invui.internal.network;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable set of packet classes, represented as a bitmask over packet class ids.
+ * Allows checking whether a packet class is contained without hashing or allocating.
+ */
+final class PacketClassMask {
+    
+    static final PacketClassMask EMPTY = new PacketClassMask(new long[0]);
+    
+    private static final AtomicInteger nextId = new AtomicInteger();
+    private static final ClassValue<Integer> ids = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextId.getAndIncrement();
+        }
+    };
+    
+    private final long[] words;
+    
+    private PacketClassMask(long[] words) {
+        this.words = words;
+    }
+    
+    /**
+     * Creates a new {@link PacketClassMask} containing the given classes.
+     *
+     * @param classes The classes
+     * @return A new {@link PacketClassMask} containing the given classes
+     */
+    static PacketClassMask of(Collection<? extends Class<?>> classes) {
+        if (classes.isEmpty())
+            return EMPTY;
+        
+        var words = new long[0];
+        for (var clazz : classes) {
+            int id = ids.get(clazz);
+            int word = id >>> 6;
+            if (word >= words.length)
+                words = Arrays.copyOf(words, word + 1);
+            words[word] |= 1L << id;
+        }
+        return new PacketClassMask(words);
+    }
+    
+    /**
+     * Checks whether this mask contains the given class.
+     *
+     * @param clazz The class
+     * @return Whether this mask contains the class
+     */
+    boolean contains(Class<?> clazz) {
+        if (words.length == 0)
+            return false;
+        int id = ids.get(clazz);
+        int word = id >>> 6;
+        return word < words.length && (words[word] & (1L << id)) != 0;
+    }
+    
+    /**
+     * Checks whether this mask contains no classes.
+     *
+     * @return Whether this mask is empty
+     */
+    boolean isEmpty() {
+        return words.length == 0;
+    }
+    
+}
@@ -5,8 +5,12 @@ import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.common.ClientboundPingPacket;
+import net.minecraft.network.protocol.common.ServerboundPongPacket;
 import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundleDelimiterPacket;
 import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
 import net.minecraft.network.protocol.game.ServerGamePacketListener;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.entity.CraftPlayer;
@@ -21,19 +25,28 @@ import xyz.xenondevs.invui.InvUI;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.StreamSupport;
+import java.util.function.Predicate;
 
 public class PacketListener implements Listener {
     
     private static final String MC_PACKET_HANDLER_NAME = "packet_handler";
+    /**
+     * The maximum amount of packets in a bundle accepted by the client.
+     */
+    private static final int MAX_BUNDLE_SIZE = 4096;
     private static final PacketListener INSTANCE = new PacketListener();
     
     private final String invuiPacketHandlerName;
     private final Map<UUID, PacketHandler> packetHandlers = new ConcurrentHashMap<>();
+    /**
+     * The packet handlers with queued outgoing packets of the current batch, or null if no batch is active on this thread.
+     */
+    private final ThreadLocal<@Nullable List<PacketHandler>> batch = new ThreadLocal<>();
     
     private PacketListener() {
         invuiPacketHandlerName = "invui_packet_handler_" + InvUI.getInstance().getPlugin().getName();
-        Bukkit.getOnlinePlayers().forEach(this::injectChannelHandler);
+        if (!InvUI.getInstance().isLazyPacketHandlerInjection())
+            Bukkit.getOnlinePlayers().forEach(this::injectChannelHandler);
         Bukkit.getPluginManager().registerEvents(this, InvUI.getInstance().getPlugin());
         InvUI.getInstance().addDisableHandler(() -> Bukkit.getOnlinePlayers().forEach(this::removeChannelHandler));
     }
@@ -43,11 +56,44 @@ public class PacketListener implements Listener {
     }
     
     public void discard(Player player, Class<? extends Packet<ClientGamePacketListener>> clazz) {
-        getPacketHandler(player.getUniqueId()).discardRules.add(clazz);
+        getPacketHandler(player).addDiscardRule(clazz);
     }
     
     public void stopDiscard(Player player, Class<? extends Packet<ClientGamePacketListener>> clazz) {
-        getPacketHandler(player.getUniqueId()).discardRules.remove(clazz);
+        var packetHandler = getInjectedPacketHandler(player);
+        if (packetHandler == null)
+            return;
+        packetHandler.removeDiscardRule(clazz);
+        removeIfUnused(player, packetHandler);
+    }
+    
+    /**
+     * Starts a batch on the current thread. Until the batch is {@link #endBatch() ended}, all packets sent via
+     * {@link #injectOutgoing(Player, Packet)} from this thread are queued per player and then sent
+     * in a single {@link ClientboundBundlePacket} with a single flush.
+     *
+     * @throws IllegalStateException If a batch is already active on this thread
+     */
+    public void beginBatch() {
+        if (batch.get() != null)
+            throw new IllegalStateException("A batch is already active on this thread");
+        batch.set(new ArrayList<>());
+    }
+    
+    /**
+     * Ends the batch of the current thread and sends all queued packets.
+     *
+     * @throws IllegalStateException If no batch is active on this thread
+     */
+    public void endBatch() {
+        var handlers = batch.get();
+        if (handlers == null)
+            throw new IllegalStateException("No batch is active on this thread");
+        batch.remove();
+        
+        for (var handler : handlers) {
+            handler.flushQueue();
+        }
     }
     
     public void injectOutgoing(Player player, List<Packet<? super ClientGamePacketListener>> packets) {
@@ -56,38 +102,203 @@ public class PacketListener implements Listener {
         injectOutgoing(player, new ClientboundBundlePacket(packets));
     }
     
+    /**
+     * Sends the given packet to the player, bypassing the {@link #discard(Player, Class) discard rules}.
+     * If a batch is active on the current thread, the packet is queued until the end of the batch.
+     * In {@link InvUI#isLazyPacketHandlerInjection() lazy injection mode}, packets for players without
+     * a packet handler are written to their channel directly, without injecting a handler.
+     *
+     * @param player The player to send the packet to
+     * @param packet The packet to send
+     */
     public void injectOutgoing(Player player, Packet<? super ClientGamePacketListener> packet) {
-        getPacketHandler(player.getUniqueId()).injectOutgoing(packet);
+        var handler = getInjectedPacketHandler(player);
+        if (handler == null) {
+            writeOutgoing(getChannel(player), packet);
+            return;
+        }
+        
+        handler.trackPings(packet);
+        var handlers = batch.get();
+        if (handlers != null) {
+            if (handler.enqueue(packet))
+                handlers.add(handler);
+        } else {
+            handler.injectOutgoing(packet);
+        }
+    }
+    
+    /**
+     * Sends the packets that are queued for the given player immediately, even if a batch is active on the current thread.
+     * This needs to be done whenever the menu of the player changes, as packets that are sent by vanilla or other plugins
+     * are not part of the batch and would otherwise overtake the queued ones.
+     *
+     * @param player The player
+     */
+    public void flushOutgoing(Player player) {
+        var handler = packetHandlers.get(player.getUniqueId());
+        if (handler != null)
+            handler.flushQueue();
+    }
+    
+    /**
+     * Sets a callback that is run on the netty thread whenever an incoming packet of the given player
+     * was added to a {@link #redirectIncoming(Player, Class, Queue) redirect} or {@link #listenIncoming(Player, Class, Queue) listener} queue.
+     *
+     * @param player   The player
+     * @param callback The callback
+     */
+    public void setIncomingCallback(Player player, Runnable callback) {
+        getPacketHandler(player).incomingCallback = callback;
+    }
+    
+    /**
+     * Removes the given incoming callback of the given player, if it is still the active callback.
+     *
+     * @param player   The player
+     * @param callback The callback to remove
+     * @see #setIncomingCallback(Player, Runnable)
+     */
+    public void removeIncomingCallback(Player player, Runnable callback) {
+        var packetHandler = packetHandlers.get(player.getUniqueId());
+        if (packetHandler != null && packetHandler.incomingCallback == callback)
+            packetHandler.incomingCallback = null;
+    }
+    
+    /**
+     * Sets a filter that is run on the netty thread for every incoming packet of the given player that would be
+     * added to a {@link #redirectIncoming(Player, Class, Queue) redirect} or {@link #listenIncoming(Player, Class, Queue) listener} queue.
+     * If the filter returns {@code true}, the packet is dropped instead.
+     *
+     * @param player The player
+     * @param filter The filter
+     */
+    public void setIncomingFilter(Player player, Predicate<? super Packet<?>> filter) {
+        getPacketHandler(player).incomingFilter = filter;
+    }
+    
+    /**
+     * Removes the given incoming filter of the given player, if it is still the active filter.
+     *
+     * @param player The player
+     * @param filter The filter to remove
+     * @see #setIncomingFilter(Player, Predicate)
+     */
+    public void removeIncomingFilter(Player player, Predicate<? super Packet<?>> filter) {
+        var packetHandler = packetHandlers.get(player.getUniqueId());
+        if (packetHandler != null && packetHandler.incomingFilter == filter)
+            packetHandler.incomingFilter = null;
+    }
+    
+    /**
+     * Checks whether the connection of the given player can currently accept outgoing packets without
+     * them piling up in the outbound buffer, i.e. whether the underlying channel is writable.
+     *
+     * @param player The player
+     * @return Whether the channel of the player is writable
+     */
+    public boolean isWritable(Player player) {
+        var packetHandler = packetHandlers.get(player.getUniqueId());
+        return packetHandler == null || packetHandler.isWritable();
     }
     
     @SuppressWarnings("unchecked")
     public <T extends Packet<? super ServerGamePacketListener>> void redirectIncoming(Player player, Class<? extends T> clazz, Queue<? super T> queue) {
-        getPacketHandler(player.getUniqueId()).redirections.put(clazz, (Queue<Packet<? super ServerGamePacketListener>>) queue);
+        getPacketHandler(player).putIncoming(true, clazz, (Queue<Packet<? super ServerGamePacketListener>>) queue);
     }
     
     public boolean removeRedirect(Player player, Class<? extends Packet<ServerGamePacketListener>> clazz) {
-        return getPacketHandler(player.getUniqueId()).redirections.remove(clazz) != null;
+        var packetHandler = getInjectedPacketHandler(player);
+        if (packetHandler == null)
+            return false;
+        boolean removed = packetHandler.removeIncoming(true, clazz);
+        removeIfUnused(player, packetHandler);
+        return removed;
     }
     
     @SuppressWarnings("unchecked")
     public <T extends Packet<? super ServerGamePacketListener>> void listenIncoming(Player player, Class<? extends T> clazz, Queue<? super T> queue) {
-        getPacketHandler(player.getUniqueId()).listeners.put(clazz, (Queue<Packet<? super ServerGamePacketListener>>) queue);
+        getPacketHandler(player).putIncoming(false, clazz, (Queue<Packet<? super ServerGamePacketListener>>) queue);
     }
     
     public boolean stopListening(Player player, Class<? extends Packet<? super ServerGamePacketListener>> clazz) {
-        return getPacketHandler(player.getUniqueId()).listeners.remove(clazz) != null;
+        var packetHandler = getInjectedPacketHandler(player);
+        if (packetHandler == null)
+            return false;
+        boolean removed = packetHandler.removeIncoming(false, clazz);
+        removeIfUnused(player, packetHandler);
+        return removed;
     }
     
-    private PacketHandler getPacketHandler(UUID uuid) {
-        var packetHandler = packetHandlers.get(uuid);
-        if (packetHandler == null)
+    /**
+     * Gets the packet handler of the given player.
+     * In {@link InvUI#isLazyPacketHandlerInjection() lazy injection mode}, the packet handler is injected if it is not present.
+     *
+     * @param player The player
+     * @return The packet handler of the player
+     * @throws IllegalStateException If no packet handler is registered for the player and lazy injection is disabled
+     */
+    private PacketHandler getPacketHandler(Player player) {
+        var packetHandler = packetHandlers.get(player.getUniqueId());
+        if (packetHandler == null) {
+            if (!InvUI.getInstance().isLazyPacketHandlerInjection())
+                throw new IllegalStateException("No packet handler is registered for this player");
+            packetHandler = injectChannelHandler(player);
+        }
+        return packetHandler;
+    }
+    
+    /**
+     * Gets the packet handler of the given player.
+     * Unlike {@link #getPacketHandler(Player)}, no packet handler is injected in
+     * {@link InvUI#isLazyPacketHandlerInjection() lazy injection mode}, for operations that do not need one,
+     * like writing outgoing packets or removing rules.
+     *
+     * @param player The player
+     * @return The packet handler of the player, or null if there is none and lazy injection is enabled
+     * @throws IllegalStateException If no packet handler is registered for the player and lazy injection is disabled
+     */
+    private @Nullable PacketHandler getInjectedPacketHandler(Player player) {
+        var packetHandler = packetHandlers.get(player.getUniqueId());
+        if (packetHandler == null && !InvUI.getInstance().isLazyPacketHandlerInjection())
             throw new IllegalStateException("No packet handler is registered for this player");
         return packetHandler;
     }
     
+    /**
+     * Removes the given packet handler from the pipeline of the player if lazy injection is enabled
+     * and the handler no longer has any rules, i.e. the player no longer has an open InvUI menu.
+     * If pongs to pings sent through the handler are still pending, the removal is deferred until
+     * the last of them has arrived.
+     * Queued packets of the handler are sent immediately.
+     *
+     * @param player        The player
+     * @param packetHandler The packet handler of the player
+     */
+    private void removeIfUnused(Player player, PacketHandler packetHandler) {
+        if (!InvUI.getInstance().isLazyPacketHandlerInjection() || !packetHandler.isUnused())
+            return;
+        
+        // set before checking the pending pongs, so that a pong arriving in between still retries the removal
+        packetHandler.removalRequested = true;
+        if (packetHandler.hasPendingPongs())
+            return;
+        
+        if (packetHandlers.remove(player.getUniqueId(), packetHandler)) {
+            // packets written directly after the removal must not overtake the queued ones
+            packetHandler.flushQueue();
+            try {
+                packetHandler.channel.pipeline().remove(packetHandler);
+            } catch (NoSuchElementException ignored) {
+                // the channel may have been closed in the meantime
+            }
+        }
+    }
+    
     @EventHandler(priority = EventPriority.LOWEST)
     private void handleJoin(PlayerJoinEvent event) {
-        injectChannelHandler(event.getPlayer());
+        if (!InvUI.getInstance().isLazyPacketHandlerInjection())
+            injectChannelHandler(event.getPlayer());
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
@@ -95,11 +306,11 @@ public class PacketListener implements Listener {
         packetHandlers.remove(event.getPlayer().getUniqueId());
     }
     
-    private void injectChannelHandler(Player player) {
+    private PacketHandler injectChannelHandler(Player player) {
         if (packetHandlers.containsKey(player.getUniqueId()))
             throw new IllegalStateException("A packet handler is already registered for this player");
         
-        var channel = ((CraftPlayer) player).getHandle().connection.connection.channel;
+        var channel = getChannel(player);
         var packetHandler = new PacketHandler(player, channel);
         packetHandlers.put(player.getUniqueId(), packetHandler);
         try {
@@ -109,11 +320,12 @@ public class PacketListener implements Listener {
             InvUI.getInstance().getPlugin().getComponentLogger()
                 .error("[InvUI] Failed to inject packet handler for player {}: {}. InvUI will not work correctly for this player.", player.getName(), e.getMessage());
         }
+        return packetHandler;
     }
     
     private void removeChannelHandler(Player player) {
         packetHandlers.remove(player.getUniqueId());
-        var channel = ((CraftPlayer) player).getHandle().connection.connection.channel;
+        var channel = getChannel(player);
         
         try {
             channel.pipeline().remove(invuiPacketHandlerName);
@@ -124,81 +336,281 @@ public class PacketListener implements Listener {
         }
     }
     
+    private static Channel getChannel(Player player) {
+        return ((CraftPlayer) player).getHandle().connection.connection.channel;
+    }
+    
+    /**
+     * Writes the given packet to the given channel on its event loop, bypassing the discard rules of the packet handler.
+     *
+     * @param channel The channel to write to
+     * @param packet  The packet to write
+     */
+    private static void writeOutgoing(Channel channel, Packet<? super ClientGamePacketListener> packet) {
+        if (!channel.eventLoop().inEventLoop()) {
+            channel.eventLoop().execute(() -> writeOutgoing(channel, packet));
+            return;
+        }
+        
+        try {
+            // This is a workaround for "promise.channel does not match: com.comphenix.protocol.injector.netty.channel.NettyChannelProxy"
+            // If ProtocolLib is installed, the channel is a proxy channel that delegates to the real channel.
+            // Using channel.newPromise(), we can obtain a promise bound to the real channel. Otherwise, netty will throw this exception.
+            var channelForPromise = channel.newPromise().channel();
+            
+            if (packet instanceof ClientboundBundlePacket bundle && containsSharedItems(bundle)) {
+                writeShared(channel, bundle, channelForPromise);
+            } else {
+                channel.writeAndFlush(packet, new ForceChannelPromise(channelForPromise));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
+    private static boolean containsSharedItems(ClientboundBundlePacket bundle) {
+        for (var subPacket : bundle.subPackets()) {
+            if (subPacket instanceof ClientboundContainerSetSlotPacket setSlot && SharedItemEncoder.isShared(setSlot.getItem()))
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Writes the sub packets of the given bundle, substituting packets containing shared items with
+     * their pre-encoded form, see {@link SharedItemEncoder}.
+     * Since pre-encoded packets cannot be part of a {@link ClientboundBundlePacket}, the bundle delimiters are written manually.
+     *
+     * @param channel           The channel to write to
+     * @param bundle            The bundle to write
+     * @param channelForPromise The channel to create promises for
+     */
+    private static void writeShared(Channel channel, ClientboundBundlePacket bundle, Channel channelForPromise) {
+        channel.write(new ClientboundBundleDelimiterPacket(), new ForceChannelPromise(channelForPromise));
+        for (var subPacket : bundle.subPackets()) {
+            Object msg = subPacket;
+            if (subPacket instanceof ClientboundContainerSetSlotPacket setSlot && SharedItemEncoder.isShared(setSlot.getItem()))
+                msg = SharedItemEncoder.encodeSetSlot(setSlot);
+            channel.write(msg, new ForceChannelPromise(channelForPromise));
+        }
+        channel.writeAndFlush(new ClientboundBundleDelimiterPacket(), new ForceChannelPromise(channelForPromise));
+    }
+    
     private static class PacketHandler extends ChannelDuplexHandler {
         
         private final Map<Class<? extends Packet<? super ServerGamePacketListener>>, Queue<Packet<? super ServerGamePacketListener>>> redirections = new ConcurrentHashMap<>();
         private final Map<Class<? extends Packet<? super ServerGamePacketListener>>, Queue<Packet<? super ServerGamePacketListener>>> listeners = new ConcurrentHashMap<>();
         private final Set<Class<? extends Packet<ClientGamePacketListener>>> discardRules = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private final List<Packet<? super ClientGamePacketListener>> queue = new ArrayList<>();
+        /**
+         * The ids of pings sent through this handler whose pongs have not arrived yet.
+         */
+        private final Set<Integer> pendingPongs = ConcurrentHashMap.newKeySet();
         private final Player player;
         private final Channel channel;
         
+        /**
+         * Masks of the packet classes in {@link #discardRules} and in {@link #redirections} or {@link #listeners},
+         * rebuilt on every rule change, so that packets without rules can be passed on without any lookups.
+         */
+        private volatile PacketClassMask discardMask = PacketClassMask.EMPTY;
+        private volatile PacketClassMask incomingMask = PacketClassMask.EMPTY;
+        private volatile @Nullable Runnable incomingCallback;
+        private volatile @Nullable Predicate<? super Packet<?>> incomingFilter;
+        /**
+         * Whether this handler was found unused while pongs were still pending, see {@link #removeIfUnused(Player, PacketHandler)}.
+         */
+        private volatile boolean removalRequested;
+        
         public PacketHandler(Player player, Channel channel) {
             this.player = player;
             this.channel = channel;
         }
         
-        public void injectOutgoing(Packet<? super ClientGamePacketListener> packet) {
-            if (!channel.eventLoop().inEventLoop()) {
-                channel.eventLoop().execute(() -> injectOutgoing(packet));
+        public synchronized void addDiscardRule(Class<? extends Packet<ClientGamePacketListener>> clazz) {
+            discardRules.add(clazz);
+            discardMask = PacketClassMask.of(discardRules);
+        }
+        
+        public synchronized void removeDiscardRule(Class<? extends Packet<ClientGamePacketListener>> clazz) {
+            discardRules.remove(clazz);
+            discardMask = PacketClassMask.of(discardRules);
+        }
+        
+        public synchronized void putIncoming(boolean redirect, Class<? extends Packet<? super ServerGamePacketListener>> clazz, Queue<Packet<? super ServerGamePacketListener>> queue) {
+            (redirect ? redirections : listeners).put(clazz, queue);
+            updateIncomingMask();
+        }
+        
+        public synchronized boolean removeIncoming(boolean redirect, Class<? extends Packet<? super ServerGamePacketListener>> clazz) {
+            boolean removed = (redirect ? redirections : listeners).remove(clazz) != null;
+            updateIncomingMask();
+            return removed;
+        }
+        
+        private void updateIncomingMask() {
+            var classes = new HashSet<Class<?>>(redirections.keySet());
+            classes.addAll(listeners.keySet());
+            incomingMask = PacketClassMask.of(classes);
+        }
+        
+        /**
+         * Checks whether this handler has no discard rules, redirections or listeners.
+         *
+         * @return Whether this handler is unused
+         */
+        public synchronized boolean isUnused() {
+            return discardRules.isEmpty() && redirections.isEmpty() && listeners.isEmpty();
+        }
+        
+        public boolean isWritable() {
+            return channel.isWritable();
+        }
+        
+        /**
+         * Adds the given packet to the queue of this handler.
+         *
+         * @param packet The packet to enqueue
+         * @return Whether the queue was empty before
+         */
+        public boolean enqueue(Packet<? super ClientGamePacketListener> packet) {
+            synchronized (queue) {
+                boolean wasEmpty = queue.isEmpty();
+                if (packet instanceof ClientboundBundlePacket bundle) {
+                    // bundles cannot be nested
+                    for (var subPacket : bundle.subPackets()) {
+                        queue.add(subPacket);
+                    }
+                } else {
+                    queue.add(packet);
+                }
+                return wasEmpty;
+            }
+        }
+        
+        /**
+         * Sends all queued packets in a single bundle.
+         */
+        public void flushQueue() {
+            List<Packet<? super ClientGamePacketListener>> packets;
+            synchronized (queue) {
+                if (queue.isEmpty())
+                    return;
+                packets = new ArrayList<>(queue);
+                queue.clear();
+            }
+            
+            if (packets.size() == 1) {
+                injectOutgoing(packets.getFirst());
                 return;
             }
             
-            try {
-                // This is a workaround for "promise.channel does not match: com.comphenix.protocol.injector.netty.channel.NettyChannelProxy"
-                // If ProtocolLib is installed, this.channel is a proxy channel that delegates to the real channel.
-                // Using channel.newPromise(), we can obtain a promise bound to the real channel. Otherwise, netty will throw this exception.
-                var channelForPromise = channel.newPromise().channel();
-                
-                channel.writeAndFlush(packet, new ForceChannelPromise(channelForPromise));
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+            for (int i = 0; i < packets.size(); i += MAX_BUNDLE_SIZE) {
+                injectOutgoing(new ClientboundBundlePacket(packets.subList(i, Math.min(i + MAX_BUNDLE_SIZE, packets.size()))));
             }
         }
         
-        @SuppressWarnings("unchecked")
+        public void injectOutgoing(Packet<? super ClientGamePacketListener> packet) {
+            writeOutgoing(channel, packet);
+        }
+        
+        /**
+         * Remembers the ids of the {@link ClientboundPingPacket pings} in the given packet,
+         * so that this handler is not removed before their pongs have arrived.
+         *
+         * @param packet The packet that is about to be sent
+         */
+        public void trackPings(Packet<? super ClientGamePacketListener> packet) {
+            if (!InvUI.getInstance().isLazyPacketHandlerInjection())
+                return;
+            
+            if (packet instanceof ClientboundBundlePacket bundle) {
+                for (var subPacket : bundle.subPackets()) {
+                    if (subPacket instanceof ClientboundPingPacket ping)
+                        pendingPongs.add(ping.getId());
+                }
+            } else if (packet instanceof ClientboundPingPacket ping) {
+                pendingPongs.add(ping.getId());
+            }
+        }
+        
+        public boolean hasPendingPongs() {
+            return !pendingPongs.isEmpty();
+        }
+        
+        /**
+         * Marks the pong with the given id as received and retries the requested removal of this handler
+         * on the thread that owns the player if it was the last pending pong.
+         *
+         * @param id The id of the pong
+         */
+        private void handlePong(int id) {
+            if (!pendingPongs.remove(id) || !pendingPongs.isEmpty() || !removalRequested)
+                return;
+            
+            player.getScheduler().run(
+                InvUI.getInstance().getPlugin(),
+                _ -> INSTANCE.removeIfUnused(player, this),
+                null
+            );
+        }
+        
         @Override
         public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
-            if (msg instanceof Packet<?> packet && !(promise instanceof ForceChannelPromise)) {
-                if (packet instanceof ClientboundBundlePacket bundle) {
-                    var subPackets = StreamSupport.stream(bundle.subPackets().spliterator(), false)
-                        .<Packet<? super ClientGamePacketListener>>map(this::singleWrite)
-                        .filter(Objects::nonNull)
-                        .toList();
-                    
-                    if (subPackets.isEmpty()) {
-                        promise.setSuccess();
-                    } else {
-                        ctx.write(new ClientboundBundlePacket(subPackets), promise);
+            var discardMask = this.discardMask;
+            if (discardMask.isEmpty() || !(msg instanceof Packet<?> packet) || promise instanceof ForceChannelPromise) {
+                ctx.write(msg, promise);
+                return;
+            }
+            
+            if (packet instanceof ClientboundBundlePacket bundle) {
+                // only rebuild the bundle if a sub packet is actually discarded
+                boolean discardAny = false;
+                for (var subPacket : bundle.subPackets()) {
+                    if (discardMask.contains(subPacket.getClass())) {
+                        discardAny = true;
+                        break;
                     }
+                }
+                
+                if (!discardAny) {
+                    ctx.write(bundle, promise);
+                    return;
+                }
+                
+                var subPackets = new ArrayList<Packet<? super ClientGamePacketListener>>();
+                for (var subPacket : bundle.subPackets()) {
+                    if (!discardMask.contains(subPacket.getClass()))
+                        subPackets.add(subPacket);
+                }
+                
+                if (subPackets.isEmpty()) {
+                    promise.setSuccess();
                 } else {
-                    var newPacket = singleWrite((Packet<ClientGamePacketListener>) packet);
-                    if (newPacket == null) {
-                        promise.setSuccess();
-                    } else {
-                        ctx.write(newPacket, promise);
-                    }
+                    ctx.write(new ClientboundBundlePacket(subPackets), promise);
                 }
+            } else if (discardMask.contains(packet.getClass())) {
+                promise.setSuccess();
             } else {
-                ctx.write(msg, promise);
-            }
-        }
-        
-        private @Nullable <P extends Packet<? super ClientGamePacketListener>> P singleWrite(P packet) {
-            if (discardRules.contains(packet.getClass())) {
-                return null;
-            } else {
-                return packet;
+                ctx.write(packet, promise);
             }
         }
         
         @SuppressWarnings("unchecked")
         @Override
         public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
-            if (!(msg instanceof Packet<?> packet)) {
+            if (msg instanceof ServerboundPongPacket pong && !pendingPongs.isEmpty())
+                handlePong(pong.getId());
+            
+            if (!(msg instanceof Packet<?> packet) || !incomingMask.contains(packet.getClass())) {
                 super.channelRead(ctx, msg);
                 return;
             }
             
+            var incomingFilter = this.incomingFilter;
+            if (incomingFilter != null && incomingFilter.test(packet))
+                return;
+            
             var listener = listeners.get(packet.getClass());
             if (listener != null) {
                 listener.add((Packet<ServerGamePacketListener>) packet);
@@ -210,6 +622,10 @@ public class PacketListener implements Listener {
             } else {
                 super.channelRead(ctx, packet);
             }
+            
+            var incomingCallback = this.incomingCallback;
+            if (incomingCallback != null && (listener != null || queue != null))
+                incomingCallback.run();
         }
         
     }
@@ -0,0 +1,115 @@
+package xyz.xenondevs.invui.internal.network;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.ProtocolInfo;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.network.protocol.game.GameProtocols;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.item.ItemStack;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Encodes {@link ItemStack ItemStacks} that are displayed to many players only once.
+ * <p>
+ * {@link ItemStack ItemStacks} that are {@link #markShared(ItemStack) marked as shared} are treated as immutable
+ * and may be referenced by the menus of multiple players. When such an {@link ItemStack} is sent in a
+ * {@link ClientboundContainerSetSlotPacket}, the packet is encoded by {@link #encodeSetSlot(ClientboundContainerSetSlotPacket)}
+ * by combining a small per-player header (packet id, container id, state id, slot) with the cached encoded form of the item.
+ */
+public final class SharedItemEncoder {
+    
+    private static final int MAX_CACHED_ITEMS = 4096;
+    
+    private static final Set<ItemStack> SHARED = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+    private static final Cache<ItemStack, ByteBuf> ENCODED = CacheBuilder.newBuilder()
+        .weakKeys()
+        .maximumSize(MAX_CACHED_ITEMS)
+        .<ItemStack, ByteBuf>removalListener(notification -> {
+            var buf = notification.getValue();
+            if (buf != null)
+                buf.release();
+        })
+        .build();
+    
+    private static volatile @Nullable ProtocolInfo<ClientGamePacketListener> protocolInfo;
+    
+    private SharedItemEncoder() {}
+    
+    /**
+     * Marks the given {@link ItemStack} as shared, i.e. immutable and potentially displayed to multiple players.
+     *
+     * @param itemStack The {@link ItemStack} to mark as shared
+     */
+    public static void markShared(ItemStack itemStack) {
+        if (!itemStack.isEmpty())
+            SHARED.add(itemStack);
+    }
+    
+    /**
+     * Checks whether the given {@link ItemStack} was {@link #markShared(ItemStack) marked as shared}.
+     *
+     * @param itemStack The {@link ItemStack} to check
+     * @return Whether the {@link ItemStack} is shared
+     */
+    public static boolean isShared(ItemStack itemStack) {
+        return SHARED.contains(itemStack);
+    }
+    
+    /**
+     * Encodes the given {@link ClientboundContainerSetSlotPacket} that contains a {@link #isShared(ItemStack) shared}
+     * {@link ItemStack}, reusing the cached encoded form of that {@link ItemStack}.
+     *
+     * @param packet The packet to encode
+     * @return The encoded packet, including the packet id, but excluding the length prefix
+     */
+    static ByteBuf encodeSetSlot(ClientboundContainerSetSlotPacket packet) {
+        // an empty item is encoded as a single zero byte, which is then replaced by the actual item
+        var header = Unpooled.buffer(16);
+        getProtocolInfo().codec().encode(
+            header,
+            new ClientboundContainerSetSlotPacket(packet.getContainerId(), packet.getStateId(), packet.getSlot(), ItemStack.EMPTY)
+        );
+        header.writerIndex(header.writerIndex() - 1);
+        
+        return Unpooled.wrappedBuffer(header, getEncodedItem(packet.getItem()));
+    }
+    
+    /**
+     * Gets a retained duplicate of the encoded form of the given {@link ItemStack}, encoding it if it is not cached yet.
+     *
+     * @param itemStack The {@link ItemStack}
+     * @return A retained duplicate of the encoded {@link ItemStack}, which needs to be released by the caller
+     */
+    private static ByteBuf getEncodedItem(ItemStack itemStack) {
+        var result = new ByteBuf[1];
+        ENCODED.asMap().compute(itemStack, (key, buf) -> {
+            if (buf == null) {
+                buf = Unpooled.directBuffer();
+                ItemStack.OPTIONAL_STREAM_CODEC.encode(new RegistryFriendlyByteBuf(buf, MinecraftServer.getServer().registryAccess()), key);
+            }
+            // retain within compute, so that concurrent eviction cannot release the buffer before it is retained
+            result[0] = buf.retainedDuplicate();
+            return buf;
+        });
+        return result[0];
+    }
+    
+    private static ProtocolInfo<ClientGamePacketListener> getProtocolInfo() {
+        var protocolInfo = SharedItemEncoder.protocolInfo;
+        if (protocolInfo == null) {
+            protocolInfo = GameProtocols.CLIENTBOUND_TEMPLATE.bind(RegistryFriendlyByteBuf.decorator(MinecraftServer.getServer().registryAccess()));
+            SharedItemEncoder.protocolInfo = protocolInfo;
+        }
+        return protocolInfo;
+    }
+    
+}
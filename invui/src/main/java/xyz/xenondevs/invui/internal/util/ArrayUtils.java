@@ -1,6 +1,7 @@
 package xyz.xenondevs.invui.internal.util;
 
 import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -92,6 +93,38 @@ public final class ArrayUtils {
         return set;
     }
     
+    /**
+     * Checks whether the given arrays have the same length and contain the same elements by identity.
+     *
+     * @param a The first array
+     * @param b The second array
+     * @return Whether both arrays contain the same elements by identity
+     */
+    public static boolean identityEquals(@Nullable Object[] a, @Nullable Object[] b) {
+        if (a.length != b.length)
+            return false;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i])
+                return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Checks whether the given array contains the given element by identity.
+     *
+     * @param array   The array
+     * @param element The element
+     * @return Whether the array contains the element by identity
+     */
+    public static boolean containsIdentity(@Nullable Object[] array, @Nullable Object element) {
+        for (Object o : array) {
+            if (o == element)
+                return true;
+        }
+        return false;
+    }
+    
     /**
      * Creates a new int array of the given size, filled with the given value.
      *
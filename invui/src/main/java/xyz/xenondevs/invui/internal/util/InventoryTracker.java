@@ -0,0 +1,182 @@
+package xyz.xenondevs.invui.internal.util;
+
+import com.google.common.collect.MapMaker;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.craftbukkit.inventory.CraftInventory;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.jspecify.annotations.Nullable;
+import xyz.xenondevs.invui.InvUI;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Detects changes in the contents of a {@link Container}.
+ * <p>
+ * Since item stacks in containers may be modified in place, changes cannot be detected through the container itself.
+ * Instead, while there are listeners, the container is compared against a snapshot once per tick on the thread
+ * that owns the container. This happens only once per container, regardless of how many windows display it,
+ * and listeners are only notified if any slot actually changed.
+ * <p>
+ * Trackers only weakly reference their container and its holder, as they are the values of a map that is weakly
+ * keyed by the container.
+ */
+public final class InventoryTracker {
+    
+    /**
+     * The slot of the off-hand item in the player inventory.
+     */
+    public static final int OFF_HAND_SLOT = 40;
+    
+    /**
+     * The maximum size of containers that can be tracked, limited by the size of the change bitmask.
+     */
+    private static final int MAX_SIZE = Long.SIZE;
+    
+    private static final Map<Container, InventoryTracker> trackers = new MapMaker().weakKeys().makeMap();
+    
+    private final WeakReference<Container> container;
+    private final @Nullable WeakReference<Entity> holder;
+    private final @Nullable Location location;
+    private final @Nullable ItemStack[] snapshot;
+    private final Set<LongConsumer> listeners = ConcurrentHashMap.newKeySet();
+    private @Nullable ScheduledTask task;
+    
+    private InventoryTracker(Container container, Inventory inventory) {
+        this.container = new WeakReference<>(container);
+        this.holder = inventory.getHolder(false) instanceof Entity entity ? new WeakReference<>(entity) : null;
+        this.location = holder == null ? inventory.getLocation() : null;
+        this.snapshot = new ItemStack[container.getContainerSize()];
+    }
+    
+    /**
+     * Gets the {@link InventoryTracker} of the given inventory.
+     *
+     * @param inventory The inventory
+     * @return The {@link InventoryTracker} of the inventory, or null if the inventory cannot be tracked
+     */
+    public static @Nullable InventoryTracker of(Inventory inventory) {
+        if (!(inventory instanceof CraftInventory craftInventory))
+            return null;
+        
+        var container = craftInventory.getInventory();
+        if (container.getContainerSize() > MAX_SIZE)
+            return null;
+        
+        return trackers.computeIfAbsent(container, c -> new InventoryTracker(c, inventory));
+    }
+    
+    /**
+     * Gets the {@link InventoryTracker} of the inventory of the given player.
+     *
+     * @param player The player
+     * @return The {@link InventoryTracker} of the player's inventory
+     */
+    public static InventoryTracker of(Player player) {
+        return Objects.requireNonNull(of(player.getInventory()));
+    }
+    
+    /**
+     * Adds a listener that is called on the thread that owns the container whenever slots of the container changed.
+     * The listener receives a bitmask of the changed slots, where bit {@code i} corresponds to slot {@code i}
+     * of the container.
+     *
+     * @param listener The listener
+     */
+    public synchronized void addListener(LongConsumer listener) {
+        listeners.add(listener);
+        if (task == null)
+            task = schedule();
+    }
+    
+    /**
+     * Removes the given listener.
+     *
+     * @param listener The listener
+     */
+    public synchronized void removeListener(LongConsumer listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    /**
+     * Schedules the polling task on the scheduler of the thread that owns the container, i.e.
+     * the entity scheduler for entity inventories, the region scheduler for block inventories
+     * and the global region scheduler for all other inventories.
+     *
+     * @return The scheduled task, or null if the holder entity is retired or no longer exists
+     */
+    private @Nullable ScheduledTask schedule() {
+        var plugin = InvUI.getInstance().getPlugin();
+        Consumer<ScheduledTask> poll = _ -> poll();
+        if (holder != null) {
+            Entity entity = holder.get();
+            if (entity == null)
+                return null;
+            return entity.getScheduler().runAtFixedRate(plugin, poll, this::handleRetired, 1, 1);
+        } else if (location != null) {
+            return Bukkit.getRegionScheduler().runAtFixedRate(plugin, location, poll, 1, 1);
+        } else {
+            return Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, poll, 1, 1);
+        }
+    }
+    
+    private synchronized void handleRetired() {
+        task = null;
+    }
+    
+    private synchronized void cancel() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    /**
+     * Compares the container against the snapshot and notifies the listeners about changed slots.
+     */
+    private void poll() {
+        Container container = this.container.get();
+        if (container == null) {
+            // the container was garbage-collected, so its contents can no longer change
+            cancel();
+            return;
+        }
+        
+        long changed = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            var item = container.getItem(i);
+            var snapshotItem = snapshot[i];
+            if (snapshotItem == null || !ItemStack.matches(item, snapshotItem)) {
+                snapshot[i] = item.copy();
+                changed |= 1L << i;
+            }
+        }
+        
+        if (changed == 0)
+            return;
+        
+        for (var listener : listeners) {
+            try {
+                listener.accept(changed);
+            } catch (Throwable t) {
+                InvUI.getInstance().handleException("Failed to handle inventory change", t);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,179 @@
+package xyz.xenondevs.invui.internal.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * An index of slots with periodic updates, bucketed by their update period.
+ * Allows iterating only the slots that are due in a given tick, instead of checking the update period of every slot.
+ */
+public final class PeriodicSlotIndex {
+    
+    private final int[] periods;
+    private int[] bucketPeriods = new int[0];
+    private BitSet[] buckets = new BitSet[0];
+    private int bucketCount;
+    private int slotCount;
+    private boolean iterating;
+    private boolean needsCompaction;
+    
+    /**
+     * Creates a new {@link PeriodicSlotIndex} for the given amount of slots.
+     *
+     * @param size The amount of slots
+     */
+    public PeriodicSlotIndex(int size) {
+        this.periods = new int[size];
+    }
+    
+    /**
+     * Sets the update period of the given slot.
+     *
+     * @param slot   The slot
+     * @param period The update period in ticks, or {@code <= 0} for no periodic updates.
+     */
+    public void set(int slot, int period) {
+        period = Math.max(0, period);
+        int prev = periods[slot];
+        if (prev == period)
+            return;
+        
+        if (prev > 0) {
+            int i = indexOf(prev);
+            buckets[i].clear(slot);
+            slotCount--;
+            if (buckets[i].isEmpty())
+                needsCompaction = true;
+        }
+        
+        if (period > 0) {
+            int i = indexOf(period);
+            if (i == -1)
+                i = addBucket(period);
+            buckets[i].set(slot);
+            slotCount++;
+        }
+        
+        periods[slot] = period;
+        if (needsCompaction && !iterating)
+            compact();
+    }
+    
+    /**
+     * Gets the update period of the given slot.
+     *
+     * @param slot The slot
+     * @return The update period in ticks, or {@code 0} if the slot does not have periodic updates.
+     */
+    public int get(int slot) {
+        return periods[slot];
+    }
+    
+    /**
+     * Removes all slots from this index.
+     */
+    public void clear() {
+        Arrays.fill(periods, 0);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i].clear();
+        }
+        slotCount = 0;
+        needsCompaction = true;
+        if (!iterating)
+            compact();
+    }
+    
+    /**
+     * Checks whether there are no slots with periodic updates.
+     *
+     * @return Whether there are no slots with periodic updates
+     */
+    public boolean isEmpty() {
+        return slotCount == 0;
+    }
+    
+    /**
+     * Checks whether there are slots whose update period divides the given tick.
+     *
+     * @param tick The current tick
+     * @return Whether any slots are due in the given tick
+     */
+    public boolean hasDue(int tick) {
+        for (int i = 0; i < bucketCount; i++) {
+            if (tick % bucketPeriods[i] == 0 && !buckets[i].isEmpty())
+                return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Runs the given action for all slots whose update period divides the given tick.
+     * The action may change the update periods of slots.
+     *
+     * @param tick   The current tick
+     * @param action The action to run for all due slots
+     * @return The amount of slots the action was run for
+     */
+    public int forEachDue(int tick, IntConsumer action) {
+        if (slotCount == 0)
+            return 0;
+        
+        int visited = 0;
+        iterating = true;
+        try {
+            int count = bucketCount;
+            for (int i = 0; i < count; i++) {
+                int period = bucketPeriods[i];
+                if (tick % period != 0)
+                    continue;
+                
+                BitSet bucket = buckets[i];
+                for (int slot = bucket.nextSetBit(0); slot >= 0; slot = bucket.nextSetBit(slot + 1)) {
+                    action.accept(slot);
+                    visited++;
+                }
+            }
+        } finally {
+            iterating = false;
+            if (needsCompaction)
+                compact();
+        }
+        
+        return visited;
+    }
+    
+    private int indexOf(int period) {
+        for (int i = 0; i < bucketCount; i++) {
+            if (bucketPeriods[i] == period)
+                return i;
+        }
+        return -1;
+    }
+    
+    private int addBucket(int period) {
+        if (bucketCount == buckets.length) {
+            int newLength = Math.max(2, bucketCount * 2);
+            bucketPeriods = Arrays.copyOf(bucketPeriods, newLength);
+            buckets = Arrays.copyOf(buckets, newLength);
+        }
+        
+        bucketPeriods[bucketCount] = period;
+        buckets[bucketCount] = new BitSet(periods.length);
+        return bucketCount++;
+    }
+    
+    private void compact() {
+        int j = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            if (buckets[i].isEmpty())
+                continue;
+            bucketPeriods[j] = bucketPeriods[i];
+            buckets[j] = buckets[i];
+            j++;
+        }
+        bucketCount = j;
+        needsCompaction = false;
+    }
+    
+}
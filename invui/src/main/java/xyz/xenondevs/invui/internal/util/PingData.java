@@ -1,4 +0,0 @@
-package xyz.xenondevs.invui.internal.util;
-
-public record PingData(int id, long timestamp) {
-}
@@ -0,0 +1,119 @@
+package xyz.xenondevs.invui.internal.util;
+
+/**
+ * Tracks pings that are awaiting a pong as a fixed-capacity ring buffer of
+ * {@code (ping id, data, timestamp)} entries, ordered by the time they were sent.
+ * <p>
+ * Timed-out entries are expired from the oldest end when new pings are added, and if the buffer is full,
+ * the oldest entry is overwritten. Since the client answers pings in order, pongs are usually matched by the oldest entry.
+ */
+public final class PingTracker {
+    
+    private final int[] pings;
+    private final int[] data;
+    private final long[] timestamps;
+    private final boolean[] answered;
+    private final long timeout;
+    private int head;
+    private int size;
+    
+    /**
+     * Creates a new {@link PingTracker}.
+     *
+     * @param capacity The maximum amount of pending pings
+     * @param timeout  The time after which pending pings expire, in the same unit as the timestamps
+     */
+    public PingTracker(int capacity, long timeout) {
+        this.pings = new int[capacity];
+        this.data = new int[capacity];
+        this.timestamps = new long[capacity];
+        this.answered = new boolean[capacity];
+        this.timeout = timeout;
+    }
+    
+    /**
+     * Adds a pending ping.
+     *
+     * @param ping      The id of the ping packet
+     * @param data      The data associated with the ping
+     * @param timestamp The time the ping was sent
+     */
+    public void add(int ping, int data, long timestamp) {
+        // expire timed out pings
+        while (size > 0 && (answered[head] || timestamp - timestamps[head] > timeout)) {
+            removeOldest();
+        }
+        
+        // overwrite the oldest ping if full
+        if (size == pings.length)
+            removeOldest();
+        
+        int i = (head + size) % pings.length;
+        pings[i] = ping;
+        this.data[i] = data;
+        timestamps[i] = timestamp;
+        answered[i] = false;
+        size++;
+    }
+    
+    /**
+     * Finds and removes the pending ping with the given id.
+     *
+     * @param ping The id of the pong packet
+     * @return The index of the ping, to be used with {@link #getData(int)} and {@link #getTimestamp(int)}
+     * until the next modification, or {@code -1} if there is no pending ping with that id
+     */
+    public int remove(int ping) {
+        for (int n = 0; n < size; n++) {
+            int i = (head + n) % pings.length;
+            if (!answered[i] && pings[i] == ping) {
+                answered[i] = true;
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the data of the ping at the given index.
+     *
+     * @param index The index returned by {@link #remove(int)}
+     * @return The data of the ping
+     */
+    public int getData(int index) {
+        return data[index];
+    }
+    
+    /**
+     * Gets the timestamp of the ping at the given index.
+     *
+     * @param index The index returned by {@link #remove(int)}
+     * @return The time the ping was sent
+     */
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+    
+    /**
+     * Gets the amount of pings that are tracked, including answered ones that have not been cleaned up yet.
+     *
+     * @return The amount of tracked pings
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Removes all pending pings.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    private void removeOldest() {
+        head = (head + 1) % pings.length;
+        size--;
+    }
+    
+}
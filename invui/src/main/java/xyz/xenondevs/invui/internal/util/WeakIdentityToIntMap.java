@@ -1,66 +1,157 @@
 package xyz.xenondevs.invui.internal.util;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.HashCommon;
 import org.jspecify.annotations.Nullable;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.OptionalInt;
 
+/**
+ * A map from weakly referenced keys, compared by identity, to int values.
+ * <p>
+ * Implemented as an open-addressing table with linear probing over parallel arrays of key identity hashes,
+ * values and weak references. Entries of garbage-collected keys are expunged in batches on modification
+ * and leave tombstones, which are reused by later insertions.
+ */
 public final class WeakIdentityToIntMap<K> {
     
-    private final Int2ObjectMap<@Nullable List<Entry<K>>> buckets = new Int2ObjectOpenHashMap<>();
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Object TOMBSTONE = new Object();
+    
     private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    /**
+     * Either null (free), {@link #TOMBSTONE} (removed) or a {@link Ref}.
+     */
+    private @Nullable Object[] refs = new Object[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    /**
+     * The amount of {@link Ref Refs} in the table.
+     */
+    private int size;
+    /**
+     * The amount of {@link Ref Refs} and tombstones in the table.
+     */
+    private int used;
     
     public OptionalInt get(K key) {
-        expunge();
         int hash = System.identityHashCode(key);
-        List<Entry<K>> bucket = buckets.get(hash);
-        if (bucket == null)
-            return OptionalInt.empty();
-        
-        for (Entry<K> e : bucket) {
-            if (e.get() == key)
-                return OptionalInt.of(e.value);
+        int i = HashCommon.mix(hash) & mask;
+        Object r;
+        while ((r = refs[i]) != null) {
+            if (r != TOMBSTONE && hashes[i] == hash && ((Ref<?>) r).get() == key)
+                return OptionalInt.of(values[i]);
+            i = (i + 1) & mask;
         }
-        
         return OptionalInt.empty();
     }
     
     public void putAssertAbsent(K key, int value) {
         expunge();
+        if ((used + 1) * 4 > refs.length * 3)
+            rehash();
+        
         int hash = System.identityHashCode(key);
-        List<Entry<K>> bucket = buckets.computeIfAbsent(hash, _ -> new ArrayList<>(2));
-        assert bucket.stream().noneMatch(e -> e.get() == key) : "Key already present in map";
-        bucket.add(new Entry<>(key, value, hash, queue));
+        int i = HashCommon.mix(hash) & mask;
+        int tombstone = -1;
+        Object r;
+        while ((r = refs[i]) != null) {
+            if (r == TOMBSTONE) {
+                if (tombstone == -1)
+                    tombstone = i;
+            } else {
+                assert hashes[i] != hash || ((Ref<?>) r).get() != key : "Key already present in map";
+            }
+            i = (i + 1) & mask;
+        }
+        
+        if (tombstone != -1) {
+            i = tombstone;
+        } else {
+            used++;
+        }
+        
+        hashes[i] = hash;
+        values[i] = value;
+        refs[i] = new Ref<>(key, i, queue);
+        size++;
+    }
+    
+    public int size() {
+        expunge();
+        return size;
+    }
+    
+    public void clear() {
+        Arrays.fill(refs, null);
+        size = 0;
+        used = 0;
+        while (queue.poll() != null) {
+            // discard stale references
+        }
     }
     
+    /**
+     * Replaces the entries of all garbage-collected keys with tombstones.
+     */
     private void expunge() {
-        Entry<?> e;
-        while ((e = (Entry<?>) queue.poll()) != null) {
-            List<Entry<K>> bucket = buckets.get(e.keyIdentityHash);
-            if (bucket != null) {
-                bucket.remove(e);
-                if (bucket.isEmpty())
-                    buckets.remove(e.keyIdentityHash);
+        Ref<?> ref;
+        while ((ref = (Ref<?>) queue.poll()) != null) {
+            // the ref may no longer be in the table if it was dropped during a rehash or clear
+            if (ref.index < refs.length && refs[ref.index] == ref) {
+                refs[ref.index] = TOMBSTONE;
+                size--;
+            }
+        }
+    }
+    
+    /**
+     * Rebuilds the table without tombstones and entries of garbage-collected keys,
+     * growing it if it would otherwise still be more than half full.
+     */
+    private void rehash() {
+        int capacity = refs.length;
+        if ((size + 1) * 2 > capacity)
+            capacity *= 2;
+        
+        int[] oldHashes = hashes;
+        int[] oldValues = values;
+        @Nullable Object[] oldRefs = refs;
+        hashes = new int[capacity];
+        values = new int[capacity];
+        refs = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+        
+        for (int j = 0; j < oldRefs.length; j++) {
+            if (!(oldRefs[j] instanceof Ref<?> ref) || ref.refersTo(null))
+                continue;
+            
+            int i = HashCommon.mix(oldHashes[j]) & mask;
+            while (refs[i] != null) {
+                i = (i + 1) & mask;
             }
+            hashes[i] = oldHashes[j];
+            values[i] = oldValues[j];
+            refs[i] = ref;
+            ref.index = i;
+            size++;
         }
+        used = size;
     }
     
-    private static class Entry<K> extends WeakReference<K> {
+    private static final class Ref<K> extends WeakReference<K> {
         
-        final int value;
-        final int keyIdentityHash;
+        int index;
         
-        Entry(K key, int value, int keyIdentityHash, ReferenceQueue<K> queue) {
+        Ref(K key, int index, ReferenceQueue<K> queue) {
             super(key, queue);
-            this.value = value;
-            this.keyIdentityHash = keyIdentityHash;
+            this.index = index;
         }
         
     }
     
-}
\ No newline at end of file
+}
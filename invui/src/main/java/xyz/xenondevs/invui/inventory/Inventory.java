@@ -492,6 +492,9 @@ public sealed abstract class Inventory implements Observable permits VirtualInve
     }
     
     protected boolean callClickEvent(int slot, Click click, InventoryAction action, boolean cancelled) {
+        if (clickHandlers == null || clickHandlers.isEmpty())
+            return cancelled;
+        
         var clickEvent = new InventoryClickEvent(this, slot, click, action);
         clickEvent.setCancelled(cancelled);
         for (var handler : getClickHandlers()) {
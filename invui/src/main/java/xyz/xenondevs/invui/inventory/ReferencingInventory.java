@@ -10,13 +10,16 @@ import org.bukkit.inventory.PlayerInventory;
 import org.jspecify.annotations.Nullable;
 import xyz.xenondevs.invui.Click;
 import xyz.xenondevs.invui.InvUI;
+import xyz.xenondevs.invui.Observer;
 import xyz.xenondevs.invui.internal.util.FakeInventoryView;
+import xyz.xenondevs.invui.internal.util.InventoryTracker;
 import xyz.xenondevs.invui.util.ItemUtils;
 import xyz.xenondevs.invui.util.TriConsumer;
 
 import java.util.Arrays;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 
 /**
  * A {@link xyz.xenondevs.invui.inventory.Inventory} which is backed by a bukkit {@link Inventory}.
@@ -31,6 +34,9 @@ public sealed class ReferencingInventory extends xyz.xenondevs.invui.inventory.I
     protected final BiFunction<Inventory, Integer, @Nullable ItemStack> itemGetter;
     protected final TriConsumer<Inventory, Integer, @Nullable ItemStack> itemSetter;
     protected final int[] maxStackSizes;
+    private final @Nullable InventoryTracker tracker;
+    private final LongConsumer trackerListener = this::handleInventoryChange;
+    private int observerCount;
     
     /**
      * Constructs a new {@link ReferencingInventory}.
@@ -53,6 +59,7 @@ public sealed class ReferencingInventory extends xyz.xenondevs.invui.inventory.I
         this.itemSetter = itemSetter;
         this.maxStackSizes = new int[getSize()];
         Arrays.fill(maxStackSizes, inventory.getMaxStackSize());
+        this.tracker = InventoryTracker.of(inventory);
     }
     
     /**
@@ -175,9 +182,53 @@ public sealed class ReferencingInventory extends xyz.xenondevs.invui.inventory.I
         return inventory;
     }
     
+    @Override
+    public synchronized void addObserver(Observer who, int what, int how) {
+        super.addObserver(who, what, how);
+        if (tracker != null && observerCount++ == 0)
+            tracker.addListener(trackerListener);
+    }
+    
+    @Override
+    public synchronized void removeObserver(Observer who, int what, int how) {
+        super.removeObserver(who, what, how);
+        if (tracker != null && --observerCount == 0)
+            tracker.removeListener(trackerListener);
+    }
+    
+    /**
+     * Notifies the windows displaying the changed slots, called by the {@link InventoryTracker} of the referenced inventory.
+     *
+     * @param changedSlots A bitmask of the changed slots of the referenced inventory
+     */
+    private void handleInventoryChange(long changedSlots) {
+        for (long bits = changedSlots; bits != 0; bits &= bits - 1) {
+            int slot = convertBackingSlot(Long.numberOfTrailingZeros(bits));
+            if (slot >= 0 && slot < getSize())
+                notifyWindows(slot);
+        }
+    }
+    
+    /**
+     * Converts a slot of the referenced inventory to a slot of this inventory.
+     *
+     * @param backingSlot The slot of the referenced inventory
+     * @return The slot of this inventory, or -1 if the slot is not part of this inventory
+     */
+    int convertBackingSlot(int backingSlot) {
+        return backingSlot;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Changes of the referenced inventory are detected once per tick and windows are only notified about
+     * slots that actually changed, so this returns {@code -1}. If the referenced inventory cannot be tracked,
+     * all slots are updated every tick instead.
+     */
     @Override
     public int getUpdatePeriod(int what) {
-        return 1;
+        return tracker != null ? -1 : 1;
     }
     
     /**
@@ -200,6 +251,11 @@ public sealed class ReferencingInventory extends xyz.xenondevs.invui.inventory.I
             return (invUiSlot + 9) % 36;
         }
         
+        @Override
+        int convertBackingSlot(int backingSlot) {
+            return backingSlot < 36 ? (backingSlot + 27) % 36 : -1;
+        }
+        
         @Override
         public @Nullable ItemStack getItem(int slot) {
             return super.getItem(convertSlot(slot));
@@ -22,4 +22,14 @@ class ConstItem extends AbstractItem {
         // empty
     }
     
+    @Override
+    public boolean isClickable() {
+        return false;
+    }
+    
+    @Override
+    public boolean isViewerIndependent() {
+        return true;
+    }
+    
 }
@@ -17,20 +17,25 @@ import java.util.function.Supplier;
 
 class CustomItem extends AbstractItem {
     
+    private static final BiConsumer<Item, Click> NO_CLICK_HANDLER = (item, click) -> {};
+    
     private final BiConsumer<? super Item, ? super Click> clickHandler;
     private final TriConsumer<? super Item, ? super Player, ? super Integer> selectHandler;
     private volatile Function<? super Player, ? extends ItemProvider> itemProvider;
+    private final boolean viewerIndependent;
     private final int updatePeriod;
     
     public CustomItem(
         BiConsumer<? super Item, ? super Click> clickHandler,
         TriConsumer<? super Item, ? super Player, ? super Integer> selectHandler,
         Function<? super Player, ? extends ItemProvider> itemProvider,
+        boolean viewerIndependent,
         int updatePeriod
     ) {
         this.clickHandler = clickHandler;
         this.selectHandler = selectHandler;
         this.itemProvider = itemProvider;
+        this.viewerIndependent = viewerIndependent;
         this.updatePeriod = updatePeriod;
     }
     
@@ -44,6 +49,16 @@ class CustomItem extends AbstractItem {
         clickHandler.accept(this, click);
     }
     
+    @Override
+    public boolean isClickable() {
+        return clickHandler != NO_CLICK_HANDLER;
+    }
+    
+    @Override
+    public boolean isViewerIndependent() {
+        return viewerIndependent;
+    }
+    
     @Override
     public void handleBundleSelect(Player player, int bundleSlot) {
         selectHandler.accept(this, player, bundleSlot);
@@ -56,9 +71,10 @@ class CustomItem extends AbstractItem {
     
     static final class Builder implements Item.Builder<Builder> {
         
-        private BiConsumer<Item, Click> clickHandler = (item, click) -> {};
+        private BiConsumer<Item, Click> clickHandler = NO_CLICK_HANDLER;
         private TriConsumer<Item, Player, Integer> selectHandler = (item, player, slot) -> {};
         private @Nullable Function<? super Player, ? extends ItemProvider> itemProviderFn;
+        private boolean viewerIndependent = true;
         private @Nullable ItemProvider asyncPlaceholder;
         private @Nullable Supplier<? extends ItemProvider> asyncSupplier;
         private @Nullable CompletableFuture<? extends ItemProvider> asyncFuture;
@@ -69,12 +85,14 @@ class CustomItem extends AbstractItem {
         @Override
         public Builder setItemProvider(ItemProvider itemProvider) {
             this.itemProviderFn = viewer -> itemProvider;
+            this.viewerIndependent = true;
             return this;
         }
         
         @Override
         public Builder setItemProvider(Function<? super Player, ? extends ItemProvider> itemProvider) {
             this.itemProviderFn = itemProvider;
+            this.viewerIndependent = false;
             return this;
         }
         
@@ -89,6 +107,7 @@ class CustomItem extends AbstractItem {
                     int i = (Bukkit.getCurrentTick() / period) % itemProviders.size();
                     return itemProviders.get(i);
                 };
+                this.viewerIndependent = true;
             } else {
                 setItemProvider(itemProviders.getFirst());
             }
@@ -151,6 +170,7 @@ class CustomItem extends AbstractItem {
                     clickHandler,
                     selectHandler,
                     viewer -> asyncPlaceholder,
+                    true,
                     updatePeriod
                 );
                 
@@ -174,6 +194,7 @@ class CustomItem extends AbstractItem {
                     clickHandler,
                     selectHandler,
                     itemProviderFn != null ? itemProviderFn : viewer -> ItemProvider.EMPTY,
+                    viewerIndependent,
                     updatePeriod
                 );
             }
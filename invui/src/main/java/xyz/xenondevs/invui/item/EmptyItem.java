@@ -17,6 +17,16 @@ final class EmptyItem implements Item {
         // empty
     }
     
+    @Override
+    public boolean isClickable() {
+        return false;
+    }
+    
+    @Override
+    public boolean isViewerIndependent() {
+        return true;
+    }
+    
     
     @Override
     public void addObserver(Observer who, int what, int how) {
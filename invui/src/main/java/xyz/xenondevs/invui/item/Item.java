@@ -55,6 +55,28 @@ public interface Item extends Observable {
      */
     void handleClick(ClickType clickType, Player player, Click click);
     
+    /**
+     * Checks whether this {@link Item} can react to clicks, i.e. whether {@link #handleClick(ClickType, Player, Click)}
+     * may have any effect. Clicks on {@link Item Items} that are not clickable may be rejected
+     * without calling {@link #handleClick(ClickType, Player, Click)}.
+     *
+     * @return Whether this {@link Item} is clickable.
+     */
+    default boolean isClickable() {
+        return true;
+    }
+    
+    /**
+     * Checks whether {@link #getItemProvider(Player)} returns the same {@link ItemProvider} regardless of the viewer.
+     * If so, windows of viewers with the same locale may reuse the {@link ItemStack} that was rendered for
+     * one of them during the same tick.
+     *
+     * @return Whether the {@link ItemProvider} of this {@link Item} does not depend on the viewer.
+     */
+    default boolean isViewerIndependent() {
+        return false;
+    }
+    
     /**
      * Called when the {@link #getItemProvider(Player) ItemProvider} has bundle contents
      * and the player selects a bundle slot.
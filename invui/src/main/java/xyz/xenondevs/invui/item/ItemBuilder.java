@@ -56,6 +56,7 @@ public final class ItemBuilder implements ItemProvider {
     private @Nullable List<Function<? super ItemStack, ? extends ItemStack>> modifiers;
     
     private Map<Locale, ItemStack> buildCache = new HashMap<>();
+    private int modCount;
     
     /**
      * Constructs a new {@link ItemBuilder} based on the given {@link ItemType}.
@@ -141,6 +142,16 @@ public final class ItemBuilder implements ItemProvider {
         return buildCache.computeIfAbsent(locale, this::build).clone();
     }
     
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+    
+    private void invalidateBuildCache() {
+        buildCache.clear();
+        modCount++;
+    }
+    
     /**
      * Builds the {@link ItemStack}.
      *
@@ -220,7 +231,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setMaterial(Material material) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack = itemStack.withType(material);
         return this;
@@ -233,7 +244,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setAmount(int amount) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.setAmount(amount);
         return this;
@@ -244,7 +255,7 @@ public final class ItemBuilder implements ItemProvider {
     //<editor-fold desc="placeholders">
     
     private ItemBuilder setPlaceholder(@TagPattern String key, TagResolver placeholder) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (placeholders == null)
             placeholders = new HashMap<>();
@@ -315,7 +326,7 @@ public final class ItemBuilder implements ItemProvider {
     }
     
     private ItemBuilder setPlaceholders(Map<String, TagResolver> placeholders) {
-        buildCache.clear();
+        invalidateBuildCache();
         this.placeholders = placeholders;
         return this;
     }
@@ -403,7 +414,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setName(Component name) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.name = new DirectComponentHolder(name);
         this.customName = null;
@@ -421,7 +432,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setName(String name) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.name = new MiniMessageComponentHolder(name);
         this.customName = null;
@@ -451,7 +462,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomName(Component customName) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.customName = new DirectComponentHolder(customName);
         this.name = null;
@@ -469,7 +480,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomName(String customName) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.customName = new MiniMessageComponentHolder(customName);
         this.name = null;
@@ -501,7 +512,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder removeLoreLine(int index) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (lore != null)
             lore.remove(index);
@@ -514,7 +525,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder clearLore() {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.lore = null;
         itemStack.unsetData(DataComponentTypes.LORE);
@@ -529,7 +540,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setLore(List<? extends Component> lore) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.lore = lore.stream()
             .map(DirectComponentHolder::new)
@@ -546,7 +557,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setLegacyLore(List<? extends String> lore) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         this.lore = lore.stream()
             .map(line -> legacySection().deserialize(line))
@@ -586,7 +597,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addLoreLines(Component... lines) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (lore == null)
             lore = new ArrayList<>();
@@ -608,7 +619,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addLoreLines(List<? extends Component> lines) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (lore == null)
             lore = new ArrayList<>();
@@ -630,7 +641,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addMiniMessageLoreLines(List<? extends String> lines) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (lore == null)
             lore = new ArrayList<>();
@@ -652,7 +663,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addLegacyLoreLines(List<? extends String> lines) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (lore == null)
             lore = new ArrayList<>();
@@ -677,7 +688,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addCustomModelData(float value) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataFloats == null)
             customModelDataFloats = new FloatArrayList();
@@ -713,7 +724,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addCustomModelData(boolean value) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataBooleans == null)
             customModelDataBooleans = new BooleanArrayList();
@@ -729,7 +740,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addCustomModelData(String value) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataStrings == null)
             customModelDataStrings = new ArrayList<>();
@@ -745,7 +756,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addCustomModelData(Color value) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataColors == null)
             customModelDataColors = new IntArrayList();
@@ -776,7 +787,7 @@ public final class ItemBuilder implements ItemProvider {
         if (index < 0)
             throw new IndexOutOfBoundsException(index);
         
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataFloats == null)
             customModelDataFloats = new FloatArrayList();
@@ -825,7 +836,7 @@ public final class ItemBuilder implements ItemProvider {
         if (index < 0)
             throw new IndexOutOfBoundsException(index);
         
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataBooleans == null)
             customModelDataBooleans = new BooleanArrayList();
@@ -850,7 +861,7 @@ public final class ItemBuilder implements ItemProvider {
         if (index < 0)
             throw new IndexOutOfBoundsException(index);
         
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataStrings == null)
             customModelDataStrings = new ArrayList<>();
@@ -875,7 +886,7 @@ public final class ItemBuilder implements ItemProvider {
         if (index < 0)
             throw new IndexOutOfBoundsException(index);
         
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (customModelDataColors == null)
             customModelDataColors = new IntArrayList();
@@ -910,7 +921,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelData(float[] floats, boolean[] flags, String[] strings, Color[] colors) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataFloats = new FloatArrayList(floats);
         customModelDataBooleans = new BooleanArrayList(flags);
@@ -928,7 +939,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelData(float[] floats) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataFloats = new FloatArrayList(floats);
         return this;
@@ -941,7 +952,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelData(boolean[] flags) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataBooleans = new BooleanArrayList(flags);
         return this;
@@ -954,7 +965,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelData(String[] strings) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataStrings = new ArrayList<>(Arrays.asList(strings));
         return this;
@@ -967,7 +978,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelData(Color[] colors) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataColors = Arrays.stream(colors)
             .map(Color::asARGB)
@@ -985,7 +996,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelData(List<? extends Float> floats, List<? extends Boolean> flags, List<? extends String> strings, List<? extends Color> colors) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataFloats = new FloatArrayList(floats);
         customModelDataBooleans = new BooleanArrayList(flags);
@@ -1003,7 +1014,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelDataFloats(List<? extends Float> floats) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataFloats = new FloatArrayList(floats);
         return this;
@@ -1016,7 +1027,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelDataFlags(List<? extends Boolean> flags) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataBooleans = new BooleanArrayList(flags);
         return this;
@@ -1029,7 +1040,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelDataStrings(List<? extends String> strings) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataStrings = new ArrayList<>(strings);
         return this;
@@ -1042,7 +1053,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder setCustomModelDataColors(List<? extends Color> colors) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         customModelDataColors = colors.stream()
             .map(Color::asARGB)
@@ -1056,7 +1067,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder clearCustomModelData() {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.unsetData(DataComponentTypes.CUSTOM_MODEL_DATA);
         
@@ -1079,7 +1090,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder hideTooltip(boolean hide) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         TooltipDisplay display = itemStack.getData(DataComponentTypes.TOOLTIP_DISPLAY);
         itemStack.setData(
@@ -1103,7 +1114,7 @@ public final class ItemBuilder implements ItemProvider {
      * @see #hideTooltip(boolean)
      */
     public ItemBuilder hideTooltip(DataComponentType type, DataComponentType... types) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         TooltipDisplay display = itemStack.getData(DataComponentTypes.TOOLTIP_DISPLAY);
         itemStack.setData(
@@ -1132,7 +1143,7 @@ public final class ItemBuilder implements ItemProvider {
         if (display == null)
             return this;
         
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.setData(
             DataComponentTypes.TOOLTIP_DISPLAY,
@@ -1174,7 +1185,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder addModifier(Function<? super ItemStack, ? extends ItemStack> modifier) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (modifiers == null)
             modifiers = new ArrayList<>();
@@ -1189,7 +1200,7 @@ public final class ItemBuilder implements ItemProvider {
      * @return The builder instance
      */
     public ItemBuilder clearModifiers() {
-        buildCache.clear();
+        invalidateBuildCache();
         
         if (modifiers != null)
             modifiers.clear();
@@ -1212,7 +1223,7 @@ public final class ItemBuilder implements ItemProvider {
      */
     @Experimental
     public <T> ItemBuilder set(DataComponentType.Valued<T> type, DataComponentBuilder<T> valueBuilder) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.setData(type, valueBuilder);
         return this;
@@ -1230,7 +1241,7 @@ public final class ItemBuilder implements ItemProvider {
      */
     @Experimental
     public <T> ItemBuilder set(final DataComponentType.Valued<T> type, T value) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.setData(type, value);
         return this;
@@ -1246,7 +1257,7 @@ public final class ItemBuilder implements ItemProvider {
      */
     @Experimental
     public ItemBuilder set(DataComponentType.NonValued type) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.setData(type);
         return this;
@@ -1262,7 +1273,7 @@ public final class ItemBuilder implements ItemProvider {
      */
     @Experimental
     public ItemBuilder unset(DataComponentType type) {
-        buildCache.clear();
+        invalidateBuildCache();
         
         itemStack.unsetData(type);
         return this;
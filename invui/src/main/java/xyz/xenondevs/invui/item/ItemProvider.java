@@ -30,4 +30,28 @@ public interface ItemProvider extends Supplier<ItemStack>, Cloneable {
      */
     ItemStack get();
     
+    /**
+     * Gets the modification count of this {@link ItemProvider}, which changes whenever the {@link ItemStack ItemStacks}
+     * returned by {@link #get(Locale)} may change. This allows consumers to cache the {@link ItemStack ItemStacks}
+     * created by this {@link ItemProvider} for as long as the modification count does not change.
+     *
+     * @return The modification count, or {@code -1} if this {@link ItemProvider} does not track modifications,
+     * in which case the {@link ItemStack ItemStacks} it returns should not be cached.
+     */
+    default int getModCount() {
+        return -1;
+    }
+    
+    /**
+     * Gets whether {@link #get(Locale)} may be called from any thread, concurrently with all other methods of this
+     * {@link ItemProvider}. Windows build the {@link ItemStack ItemStacks} of thread-safe {@link ItemProvider ItemProviders}
+     * on worker threads and display them in the following tick, which is only worthwhile if building them is expensive,
+     * for example because of translated or MiniMessage-formatted text.
+     *
+     * @return Whether this {@link ItemProvider} is thread-safe, {@code false} by default.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+    
 }
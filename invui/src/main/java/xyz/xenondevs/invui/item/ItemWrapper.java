@@ -35,6 +35,11 @@ public final class ItemWrapper implements ItemProvider {
         return itemStack.clone();
     }
     
+    @Override
+    public int getModCount() {
+        return 0;
+    }
+    
     @Override
     public ItemWrapper clone() {
         try {
@@ -1,6 +1,5 @@
 package xyz.xenondevs.invui.window;
 
-import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
@@ -21,12 +20,14 @@ import org.jspecify.annotations.Nullable;
 import xyz.xenondevs.invui.Click;
 import xyz.xenondevs.invui.ClickEvent;
 import xyz.xenondevs.invui.InvUI;
+import xyz.xenondevs.invui.Metrics;
 import xyz.xenondevs.invui.gui.Gui;
 import xyz.xenondevs.invui.gui.SlotElement;
 import xyz.xenondevs.invui.i18n.Languages;
 import xyz.xenondevs.invui.internal.menu.CustomContainerMenu;
 import xyz.xenondevs.invui.internal.menu.UpdateType;
 import xyz.xenondevs.invui.internal.menu.WindowEventListener;
+import xyz.xenondevs.invui.internal.network.PacketListener;
 import xyz.xenondevs.invui.internal.util.*;
 import xyz.xenondevs.invui.inventory.CompositeInventory;
 import xyz.xenondevs.invui.inventory.Inventory;
@@ -40,6 +41,9 @@ import xyz.xenondevs.invui.util.InventoryUtils;
 import xyz.xenondevs.invui.util.ItemUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -73,16 +77,27 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
     private final MutableProperty<Boolean> closeable;
     private final MutableProperty<Integer> serverWindowState;
     private boolean isOpen;
+    private boolean isSuspended;
     private int clientWindowState;
     
     private final int size;
     private final List<List<SlotElement>> elementsDisplayed;
     private final BitSet dirtySlots;
+    private final BitSet pendingSlots;
+    private long renderBudget;
+    private long renderDeadline;
+    private final PeriodicSlotIndex periodicSlots;
+    private final SlotRenderCache renderCache;
+    private final @Nullable AsyncRender[] asyncRenders;
+    private final BitSet completedAsyncRenders;
     private volatile boolean dirtyTitle;
-    private @Nullable ScheduledTask tickTask;
+    @Nullable WindowTicker.TickGroup tickGroup;
     private int windowTick;
     
     private @Nullable Component activeTitle;
+    private @Nullable AnimatedTitleImpl localizedTitle;
+    private @Nullable Locale localizedTitleLocale;
+    private Component[] localizedTitleFrames = new Component[0];
     
     AbstractWindow(
         Player viewer,
@@ -102,6 +117,11 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
         this.currentCursorVisualizer = FuncUtils.getSafely(cursorVisualizer, DEFAULT_CURSOR_VISUALIZER);
         this.size = size;
         this.dirtySlots = new BitSet(size);
+        this.pendingSlots = new BitSet(size);
+        this.periodicSlots = new PeriodicSlotIndex(size);
+        this.renderCache = new SlotRenderCache(size);
+        this.asyncRenders = new AsyncRender[size];
+        this.completedAsyncRenders = new BitSet(size);
         this.elementsDisplayed = IntStream.range(0, size)
             .<List<SlotElement>>mapToObj(i -> new ArrayList<>())
             .collect(Collectors.toCollection(ArrayList::new));
@@ -129,16 +149,30 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
             elementsDisplayed.set(slot, path);
         }
         
+        SlotElement lastElement = path.getLast();
+        periodicSlots.set(slot, lastElement.getUpdatePeriod());
+        menu.setInert(slot, lastElement instanceof SlotElement.Item item && !item.item().isClickable());
+        if (lastElement instanceof SlotElement.Item item) {
+            if (isRenderBudgetExceeded()) {
+                // keep the previous content as placeholder until the slot is rendered in a later tick
+                if (!pendingSlots.get(slot)) {
+                    pendingSlots.set(slot);
+                    Metrics.getInstance().recordProgressiveSlot();
+                }
+                return;
+            }
+            
+            pendingSlots.clear(slot);
+            updateItem(slot, item);
+            return;
+        }
+        cancelAsyncRender(slot);
+        renderCache.invalidate(slot);
+        
         // create and place item stack in inventory
         ItemStack itemStack;
-        SlotElement lastElement = path.getLast();
         if (!(lastElement instanceof SlotElement.GuiLink)) {
             itemStack = lastElement.getItemStack(getViewer());
-            if (itemStack != null && lastElement instanceof SlotElement.Item) {
-                // This makes every item unique to prevent Shift-DoubleClick "clicking" multiple items at the same time.
-                itemStack = itemStack.clone(); // clone ItemStack in order to not modify the original
-                itemStack.editPersistentDataContainer(pdc -> pdc.set(SLOT_KEY, PersistentDataType.BYTE, (byte) slot));
-            }
         } else { // there is no holding element
             // background by gui
             itemStack = path.reversed().stream()
@@ -153,6 +187,201 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
         setMenuItem(slot, itemStack);
     }
     
+    /**
+     * Renders the given {@link SlotElement.Item} into the given slot, unless the item that is already placed in the slot
+     * was rendered by the same unmodified {@link ItemProvider}.
+     * {@link ItemProvider#isThreadSafe() Thread-safe} providers are rendered by the {@link AsyncItemRenderer}
+     * and placed in the slot once the render has completed, see {@link #applyAsyncRenders()}.
+     *
+     * @param slot    The slot
+     * @param element The {@link SlotElement.Item} to render
+     * @return Whether an item was placed in the slot
+     */
+    private boolean updateItem(int slot, SlotElement.Item element) {
+        var locale = getLocale();
+        int renderState = getRenderState(slot);
+        boolean shared = InvUI.getInstance().isSharedItemEncoding();
+        ItemStack itemStack = null;
+        try {
+            ItemProvider provider = element.item().getItemProvider(getViewer());
+            if (renderCache.isCached(slot, provider, locale, renderState)) {
+                Metrics.getInstance().recordRenderCacheHit();
+                return false;
+            }
+            
+            Metrics.getInstance().recordRenderCacheMiss();
+            
+            // Providers that do not track modifications are never cached, so a render that is still in flight is kept
+            // instead of being replaced on every update, which would never let any render complete if the slot is
+            // updated more often than it takes to render it. The next update after it was applied renders again.
+            var inFlight = asyncRenders[slot];
+            if (inFlight != null
+                && inFlight.provider() == provider
+                && inFlight.modCount() == provider.getModCount()
+                && inFlight.locale().equals(locale)
+            ) {
+                return false;
+            }
+            
+            cancelAsyncRender(slot);
+            renderCache.put(slot, provider, locale, renderState);
+            if (shared) {
+                var pooled = SharedRenderPool.getInstance().get(provider, locale, slot);
+                if (pooled != null) {
+                    setMenuItem(slot, pooled);
+                    return true;
+                }
+            }
+            
+            // viewer-independent items are rendered once per locale and tick for all windows of the tick group
+            boolean viewerIndependent = element.item().isViewerIndependent();
+            if (viewerIndependent) {
+                var memoized = SharedRenderPool.getInstance().getMemoized(element, provider, locale, slot);
+                if (memoized != null) {
+                    setMenuItem(slot, memoized.clone());
+                    return true;
+                }
+            }
+            
+            if (provider.isThreadSafe()) {
+                // the previous content remains in the slot until the render is applied
+                // the mod count is captured before submitting, as the provider may be modified while it is rendered
+                int modCount = provider.getModCount();
+                var future = AsyncItemRenderer.getInstance().submit(() -> renderItem(provider, locale, slot));
+                asyncRenders[slot] = new AsyncRender(provider, modCount, locale, future);
+                future.whenComplete((_, _) -> {
+                    synchronized (completedAsyncRenders) {
+                        completedAsyncRenders.set(slot);
+                    }
+                });
+                return false;
+            }
+            
+            itemStack = renderItem(provider, locale, slot);
+            if (itemStack != null && shared)
+                SharedRenderPool.getInstance().put(provider, locale, slot, itemStack);
+            if (itemStack != null && viewerIndependent)
+                SharedRenderPool.getInstance().memoize(element, provider, locale, slot, itemStack.clone());
+        } catch (Throwable t) {
+            renderCache.invalidate(slot);
+            InvUI.getInstance().handleException("Failed to get item stack for item slot element", t);
+        }
+        
+        setMenuItem(slot, itemStack);
+        return true;
+    }
+    
+    /**
+     * Creates the {@link ItemStack} of the given {@link ItemProvider} for the given slot.
+     * Called on the thread that owns the viewer, or by the {@link AsyncItemRenderer} for thread-safe providers.
+     *
+     * @param provider The {@link ItemProvider}
+     * @param locale   The {@link Locale} to render in
+     * @param slot     The slot
+     * @return The rendered {@link ItemStack}
+     */
+    private static @Nullable ItemStack renderItem(ItemProvider provider, Locale locale, int slot) {
+        ItemStack itemStack = provider.get(locale);
+        if (itemStack == null)
+            return null;
+        
+        // This makes every item unique to prevent Shift-DoubleClick "clicking" multiple items at the same time.
+        itemStack = itemStack.clone(); // clone ItemStack in order to not modify the original
+        itemStack.editPersistentDataContainer(pdc -> pdc.set(SLOT_KEY, PersistentDataType.BYTE, (byte) slot));
+        return itemStack;
+    }
+    
+    /**
+     * Places the results of all completed asynchronous renders in their slots.
+     *
+     * @return Whether any slot was changed
+     */
+    private boolean applyAsyncRenders() {
+        BitSet completed;
+        synchronized (completedAsyncRenders) {
+            if (completedAsyncRenders.isEmpty())
+                return false;
+            completed = (BitSet) completedAsyncRenders.clone();
+            completedAsyncRenders.clear();
+        }
+        
+        boolean changedAny = false;
+        int slot = 0;
+        while ((slot = completed.nextSetBit(slot)) != -1) {
+            // completions of cancelled renders are ignored
+            var render = asyncRenders[slot];
+            if (render != null && render.future().isDone()) {
+                asyncRenders[slot] = null;
+                
+                ItemStack itemStack = null;
+                try {
+                    itemStack = render.future().join();
+                    if (itemStack != null && InvUI.getInstance().isSharedItemEncoding())
+                        SharedRenderPool.getInstance().put(render.provider(), render.modCount(), render.locale(), slot, itemStack);
+                } catch (CompletionException e) {
+                    renderCache.invalidate(slot);
+                    InvUI.getInstance().handleException("Failed to get item stack for item slot element", e.getCause());
+                }
+                
+                setMenuItem(slot, itemStack);
+                changedAny = true;
+            }
+            slot++;
+        }
+        
+        return changedAny;
+    }
+    
+    /**
+     * Cancels the asynchronous render of the given slot, if there is one.
+     *
+     * @param slot The slot
+     */
+    private void cancelAsyncRender(int slot) {
+        var render = asyncRenders[slot];
+        if (render != null) {
+            render.future().cancel(false);
+            asyncRenders[slot] = null;
+        }
+    }
+    
+    /**
+     * Cancels all asynchronous renders and forgets the rendered items of their slots, as these were never placed.
+     */
+    private void cancelAsyncRenders() {
+        for (int i = 0; i < size; i++) {
+            if (asyncRenders[i] != null) {
+                cancelAsyncRender(i);
+                renderCache.invalidate(i);
+            }
+        }
+        synchronized (completedAsyncRenders) {
+            completedAsyncRenders.clear();
+        }
+    }
+    
+    /**
+     * Starts limiting the time spent rendering items to the {@link InvUI#getProgressiveOpenBudget() progressive open budget},
+     * until {@link #endRenderBudget()} is called.
+     */
+    private void startRenderBudget() {
+        renderBudget = TimeUnit.MICROSECONDS.toNanos(InvUI.getInstance().getProgressiveOpenBudget());
+        renderDeadline = System.nanoTime() + renderBudget;
+    }
+    
+    private void endRenderBudget() {
+        renderBudget = 0;
+    }
+    
+    /**
+     * Checks whether a render budget was {@link #startRenderBudget() started} and has been used up.
+     *
+     * @return Whether item rendering should be postponed
+     */
+    private boolean isRenderBudgetExceeded() {
+        return renderBudget > 0 && System.nanoTime() - renderDeadline > 0;
+    }
+    
     /**
      * Registers this window as a viewer using slot from all elements in the path.
      *
@@ -181,23 +410,46 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
      * Registers this window as a viewer for all elements.
      */
     protected void registerAsViewer() {
-        // individual slot element viewers are registered through item init
+        // individual slot element viewers are registered through item init,
+        // except for the elements that were retained while this window was suspended
+        for (int i = 0; i < size; i++) {
+            registerAsViewer(i, elementsDisplayed.get(i));
+        }
     }
     
     /**
      * Unregisters this window as viewer from all elements and clears elementsDisplayed accordingly.
+     * If this window is being {@link #isSuspended() suspended}, elementsDisplayed and the rendered items are retained.
      */
     protected void unregisterAsViewer() {
         for (int i = 0; i < size; i++) {
             unregisterAsViewer(i, elementsDisplayed.get(i));
-            elementsDisplayed.set(i, List.of());
+            if (!isSuspended)
+                elementsDisplayed.set(i, List.of());
+            menu.setInert(i, false);
         }
+        periodicSlots.clear();
+        if (!isSuspended)
+            renderCache.clear();
     }
     
     protected void setMenuItem(int slot, @Nullable ItemStack itemStack) {
         menu.setItem(slot, itemStack);
     }
     
+    /**
+     * Gets a value that identifies the state of this window that {@link #setMenuItem(int, ItemStack)} depends on
+     * for the given slot. Items rendered into a slot are only kept while its render state does not change,
+     * so windows that alter items in {@link #setMenuItem(int, ItemStack)} based on their own properties need to
+     * override this method.
+     *
+     * @param slot The slot
+     * @return The render state of the slot
+     */
+    protected int getRenderState(int slot) {
+        return 0;
+    }
+    
     public void notifyUpdate(int slot) {
         synchronized (dirtySlots) {
             dirtySlots.set(slot);
@@ -210,49 +462,127 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
         dirtyTitle = true;
     }
     
+    /**
+     * Called every tick by the {@link WindowTicker}.
+     * Skips {@link #handleTick()} if this window is {@link #isIdle() idle}.
+     */
+    void tick() {
+        if (isIdle()) {
+            windowTick++;
+        } else {
+            handleTick();
+        }
+    }
+    
     public void handleTick() {
         var updateType = menu.processIncoming();
         updateAndFlush(updateType, -1);
         windowTick++;
     }
     
+    /**
+     * Checks whether this window has nothing to do in {@link #handleTick()}, i.e. there are no incoming packets,
+     * no dirty slots, no dirty or animated title and no slots with periodic updates.
+     *
+     * @return Whether the tick of this window can be skipped
+     */
+    protected boolean isIdle() {
+        if (menu.hasIncoming() || dirtyTitle || titleSupplier instanceof AnimatedTitle || !periodicSlots.isEmpty() || !pendingSlots.isEmpty())
+            return false;
+        
+        synchronized (completedAsyncRenders) {
+            if (!completedAsyncRenders.isEmpty())
+                return false;
+        }
+        
+        synchronized (dirtySlots) {
+            return dirtySlots.isEmpty();
+        }
+    }
+    
+    @Override
+    public void handleIncoming() {
+        if (!isOpen())
+            return;
+        
+        // periodic updates remain on the tick
+        var updateType = menu.processIncoming();
+        updateAndFlush(updateType, -1, false);
+    }
+    
     private void updateAndFlush(UpdateType updateType, int pingId) {
+        updateAndFlush(updateType, pingId, true);
+    }
+    
+    private void updateAndFlush(UpdateType updateType, int pingId, boolean periodic) {
         if (!isOpen())
             return;
         
-        updateType = updateType.or(updateSlots());
+        // While the connection of the viewer is saturated, defer updates that are not a response to the viewer,
+        // such as periodic item updates, animated titles and gui changes. Dirty slots remain dirty and periodic slots
+        // that are due are marked dirty, so that they are sent as one merged diff once the connection is writable again.
+        // Animated titles skip to their current frame.
+        if (updateType == UpdateType.NONE && pingId < 0 && !dirtyTitle && !PacketListener.getInstance().isWritable(viewer)) {
+            if (hasDeferrableWork(periodic))
+                Metrics.getInstance().recordDeferredUpdate();
+            if (periodic) {
+                synchronized (dirtySlots) {
+                    periodicSlots.forEachDue(windowTick, dirtySlots::set);
+                }
+            }
+            return;
+        }
+        
+        updateType = updateType.or(updateSlots(periodic));
         
-        // title update resends entire inventory, so changes only need to be sent if title is not updated
+        boolean titleUpdated = false;
         if (dirtyTitle) {
             dirtyTitle = false;
-            actuallyUpdateTitle();
+            titleUpdated = actuallyUpdateTitle();
         } else if (titleSupplier instanceof AnimatedTitle) {
-            actuallyUpdateTitle();
-        } else if (updateType == UpdateType.FULL) {
+            titleUpdated = actuallyUpdateTitle();
+        }
+        
+        // title update resends entire inventory, so changes only need to be sent if title is not updated
+        if (titleUpdated)
+            return;
+        if (updateType == UpdateType.FULL) {
             menu.sendAllToRemote(pingId);
         } else if (updateType == UpdateType.DIRTY) {
             menu.sendChangesToRemote(pingId);
         }
     }
     
-    private UpdateType updateSlots() {
-        boolean changedAny = false;
+    /**
+     * Checks whether {@link #updateAndFlush(UpdateType, int, boolean)} would have anything to send apart from
+     * responses to the viewer, i.e. whether there are dirty, due periodic, pending or asynchronously rendered slots
+     * or a new frame of an animated title.
+     *
+     * @param periodic Whether periodic and pending slots are updated
+     * @return Whether there is work that would be deferred
+     */
+    private boolean hasDeferrableWork(boolean periodic) {
+        if (periodic && (periodicSlots.hasDue(windowTick) || !pendingSlots.isEmpty()))
+            return true;
         
-        // periodic updates (cannot be structural, only item or inventory element)
-        for (int slot = 0; slot < size; slot++) {
-            if (slot >= elementsDisplayed.size())
-                continue;
-            
-            var path = elementsDisplayed.get(slot);
-            if (path.isEmpty())
-                continue;
-            
-            var updatePeriod = path.getLast().getUpdatePeriod();
-            if (updatePeriod > 0 && windowTick % updatePeriod == 0) {
-                update(slot, false);
-                changedAny = true;
-            }
+        if (titleSupplier instanceof AnimatedTitleImpl animatedTitle && activeTitle != animatedTitle.frames()[animatedTitle.getFrameIndex()])
+            return true;
+        
+        synchronized (completedAsyncRenders) {
+            if (!completedAsyncRenders.isEmpty())
+                return true;
+        }
+        
+        synchronized (dirtySlots) {
+            return !dirtySlots.isEmpty();
         }
+    }
+    
+    private UpdateType updateSlots(boolean periodic) {
+        boolean changedAny = applyAsyncRenders();
+        
+        // periodic updates (cannot be structural, only item or inventory element)
+        changedAny |= periodic && periodicSlots.forEachDue(windowTick, slot -> update(slot, false)) > 0;
         
         // updates from notifyWindows (can be structural, ex. gui slot element change)
         BitSet toUpdate;
@@ -268,16 +598,65 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
             slot++;
         }
         
+        // slots that were postponed by the progressive open, rendered within the budget of this tick
+        if (periodic && !pendingSlots.isEmpty()) {
+            startRenderBudget();
+            try {
+                slot = 0;
+                while ((slot = pendingSlots.nextSetBit(slot)) != -1 && !isRenderBudgetExceeded()) {
+                    // pending slots always display items, structural changes are handled through dirtySlots
+                    pendingSlots.clear(slot);
+                    var path = elementsDisplayed.get(slot);
+                    if (!path.isEmpty() && path.getLast() instanceof SlotElement.Item item)
+                        changedAny |= updateItem(slot, item);
+                    slot++;
+                }
+            } finally {
+                endRenderBudget();
+            }
+        }
+        
         return changedAny ? UpdateType.DIRTY : UpdateType.NONE;
     }
     
-    private void actuallyUpdateTitle() {
+    private boolean actuallyUpdateTitle() {
+        if (titleSupplier instanceof AnimatedTitleImpl animatedTitle)
+            return updateAnimatedTitle(animatedTitle);
+        
         var title = getTitle();
         if (title.equals(activeTitle))
-            return;
+            return false;
         activeTitle = title;
         
         menu.sendOpenPacket(Languages.getInstance().localized(viewer, title));
+        return true;
+    }
+    
+    /**
+     * Displays the current frame of the given {@link AnimatedTitleImpl}, if it is not already displayed.
+     * The frames are localized once per locale and only the title is resent, see {@link CustomContainerMenu#sendTitle(Component)}.
+     *
+     * @param animatedTitle The animated title
+     * @return Whether the title was changed
+     */
+    private boolean updateAnimatedTitle(AnimatedTitleImpl animatedTitle) {
+        var frames = animatedTitle.frames();
+        int frame = animatedTitle.getFrameIndex();
+        if (activeTitle == frames[frame])
+            return false;
+        activeTitle = frames[frame];
+        
+        var locale = getLocale();
+        if (localizedTitle != animatedTitle || !locale.equals(localizedTitleLocale)) {
+            localizedTitle = animatedTitle;
+            localizedTitleLocale = locale;
+            localizedTitleFrames = Arrays.stream(frames)
+                .map(title -> Languages.getInstance().localized(locale, title))
+                .toArray(Component[]::new);
+        }
+        
+        menu.sendTitle(localizedTitleFrames[frame]);
+        return true;
     }
     
     private void onCursorVisualizerChange() {
@@ -365,6 +744,9 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
     
     @Override
     public void handleBundleSelect(int slot, int bundleSlot) {
+        // the menu has changed the selected bundle item in place
+        renderCache.invalidate(slot);
+        
         var link = getGuiAt(slot);
         if (link == null)
             return;
@@ -529,6 +911,15 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
     
     @Override
     public void open() {
+        open(false);
+    }
+    
+    /**
+     * Opens this window, or resumes it if it is {@link #isSuspended() suspended}.
+     *
+     * @param suspendPrevious Whether the window that is currently open should be suspended instead of closed
+     */
+    void open(boolean suspendPrevious) {
         Player viewer = getViewer();
         if (isOpen || viewer.isSleeping() || !viewer.isValid() || !viewer.isConnected())
             return;
@@ -544,31 +935,46 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
             isOpen = true;
             
             // close old window and move cursor to new window
+            // if the menu of the old window can be taken over, the screen is not reopened on the client
             AbstractWindow<?> oldWindow = (AbstractWindow<?>) WindowManager.getInstance().getOpenWindow(viewer);
             assert oldWindow != this;
+            boolean takeOver = oldWindow != null && menu.canTakeOver(oldWindow.menu);
             if (oldWindow != null) {
                 ItemStack cursor = oldWindow.menu.getCursor();
                 oldWindow.menu.setCursor(null);
                 menu.setCursor(cursor);
                 
-                oldWindow.handleClose(Reason.OPEN_NEW);
+                oldWindow.handleClose(Reason.OPEN_NEW, !takeOver, suspendPrevious);
             }
             
             // track window and elements
             WindowManager.getInstance().addWindow(this);
-            tickTask = getViewer().getScheduler().runAtFixedRate(InvUI.getInstance().getPlugin(), _ -> handleTick(), null, 1, 1);
+            WindowTicker.getInstance().add(this);
             registerAsViewer();
+            isSuspended = false;
             
-            // init items
-            for (int i = 0; i < size; i++) {
-                update(i, true);
+            // init items, if this window is resumed, only the slots that changed while it was suspended are re-rendered
+            // item slots that exceed the progressive open budget are rendered in the following ticks
+            startRenderBudget();
+            try {
+                for (int i = 0; i < size; i++) {
+                    update(i, true);
+                }
+            } finally {
+                endRenderBudget();
             }
             postItemInit();
             
             // open menu
             var title = getTitle();
             activeTitle = title;
-            menu.open(Languages.getInstance().localized(viewer, title));
+            var localized = Languages.getInstance().localized(viewer, title);
+            if (takeOver) {
+                menu.takeOver(oldWindow.menu, localized);
+            } else {
+                menu.open(localized);
+            }
+            PacketListener.getInstance().flushOutgoing(viewer);
             
             // open handlers
             forEachCatching(openHandlers, Runnable::run, "Failed to handle window open");
@@ -590,15 +996,31 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
     
     @Override
     public void handleClose(Reason cause) {
+        handleClose(cause, true, false);
+    }
+    
+    /**
+     * Handles the closing of this window.
+     *
+     * @param cause       The reason why the window was closed
+     * @param releaseMenu Whether the menu should be closed, which is not the case if it is taken over by the menu of the next window
+     * @param suspend     Whether the window should be {@link #isSuspended() suspended}
+     */
+    private void handleClose(Reason cause, boolean releaseMenu, boolean suspend) {
         // might have already been called by close() or open() if the window was replaced by another one
         if (!isOpen)
             return;
         
         WindowManager.getInstance().removeWindow(this);
-        if (tickTask != null)
-            tickTask.cancel();
+        WindowTicker.getInstance().remove(this);
+        isSuspended = suspend;
+        pendingSlots.clear();
+        cancelAsyncRenders();
         unregisterAsViewer();
-        menu.handleClosed();
+        if (releaseMenu) {
+            menu.handleClosed();
+            PacketListener.getInstance().flushOutgoing(viewer);
+        }
         isOpen = false;
         
         ItemStack cursor = menu.getCursor();
@@ -610,6 +1032,10 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
             InventoryUtils.addToInventoryOrDrop(viewer, cursor);
         }
         
+        // the viewer left the windows, so there is nothing to navigate back to
+        if (cause != Reason.OPEN_NEW && WindowManager.getInstance().getOpenWindow(viewer) == null)
+            WindowNavigator.getInstance().clear(viewer);
+        
         try {
             isInCloseHandlerContext.set(isInCloseHandlerContext.get() + 1);
             forEachCatching(closeHandlers, handler -> handler.accept(cause), "Failed to handle window close");
@@ -813,6 +1239,41 @@ non-sealed abstract class AbstractWindow<M extends CustomContainerMenu> implemen
         return isOpen;
     }
     
+    /**
+     * Checks whether this window is suspended, i.e. it was closed by {@link WindowNavigator#navigate(Window)}
+     * but still holds on to the slot elements and items it displayed, so that it can be resumed by re-rendering only
+     * the slots that changed in the meantime.
+     *
+     * @return Whether this window is suspended
+     */
+    boolean isSuspended() {
+        return isSuspended;
+    }
+    
+    /**
+     * Drops the retained state of this window if it is {@link #isSuspended() suspended},
+     * after which it will be opened like a window that was closed normally.
+     */
+    void discardSuspended() {
+        if (!isSuspended)
+            return;
+        
+        isSuspended = false;
+        for (int i = 0; i < size; i++) {
+            elementsDisplayed.set(i, List.of());
+        }
+        renderCache.clear();
+    }
+    
+    /**
+     * An asynchronous render of a {@link ItemProvider#isThreadSafe() thread-safe} {@link ItemProvider}.
+     *
+     * @param provider The {@link ItemProvider} that is rendered
+     * @param locale   The {@link Locale} that is rendered in
+     * @param future   The future of the rendered {@link ItemStack}
+     */
+    private record AsyncRender(ItemProvider provider, int modCount, Locale locale, CompletableFuture<@Nullable ItemStack> future) {}
+    
     @SuppressWarnings("unchecked")
     static sealed abstract class AbstractBuilder<W extends Window, S extends Window.Builder<W, S>>
         implements Window.Builder<W, S>
@@ -2,7 +2,6 @@ package xyz.xenondevs.invui.window;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import org.bukkit.Bukkit;
 import xyz.xenondevs.invui.internal.util.ArrayUtils;
 
 import java.util.Arrays;
@@ -90,7 +89,7 @@ public interface AnimatedTitle extends Supplier<Component> {
         if (frames.length == 0)
             throw new IllegalArgumentException("frames must not be empty");
         
-        return () -> frames[(Bukkit.getCurrentTick() / frameTime) % frames.length];
+        return new AnimatedTitleImpl(frameTime, frames.clone());
     }
     
 }
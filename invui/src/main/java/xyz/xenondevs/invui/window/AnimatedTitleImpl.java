@@ -0,0 +1,29 @@
+package xyz.xenondevs.invui.window;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+
+/**
+ * The {@link AnimatedTitle} created by {@link AnimatedTitle#of(int, Component[])}.
+ * Exposes its frames, so that windows can localize them once and only reopen the menu when the frame index changes.
+ *
+ * @param frameTime The time in ticks each frame is displayed
+ * @param frames    The frames
+ */
+record AnimatedTitleImpl(int frameTime, Component[] frames) implements AnimatedTitle {
+    
+    /**
+     * Gets the index of the frame that is to be displayed in the current tick.
+     *
+     * @return The index of the current frame
+     */
+    int getFrameIndex() {
+        return (Bukkit.getCurrentTick() / frameTime) % frames.length;
+    }
+    
+    @Override
+    public Component get() {
+        return frames[getFrameIndex()];
+    }
+    
+}
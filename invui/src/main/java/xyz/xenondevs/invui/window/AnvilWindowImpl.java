@@ -73,6 +73,15 @@ final class AnvilWindowImpl extends AbstractSplitWindow<CustomAnvilMenu> impleme
         }
     }
     
+    @Override
+    protected int getRenderState(int slot) {
+        return switch (slot) {
+            case 0 -> getTextFieldAlwaysEnabled() ? 1 : 0;
+            case 2 -> getResultAlwaysValid() ? 1 : 0;
+            default -> 0;
+        };
+    }
+    
     @Override
     public String getRenameText() {
         return menu.getRenameText();
@@ -0,0 +1,50 @@
+package xyz.xenondevs.invui.window;
+
+import xyz.xenondevs.invui.InvUI;
+import xyz.xenondevs.invui.item.ItemProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of worker threads that render {@link ItemProvider#isThreadSafe() thread-safe} {@link ItemProvider ItemProviders}
+ * off the threads that own the viewers of windows.
+ * <p>
+ * The results are placed in the windows by the owning threads during the next window tick.
+ */
+final class AsyncItemRenderer {
+    
+    private static final AsyncItemRenderer INSTANCE = new AsyncItemRenderer();
+    
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+        Thread.ofPlatform().name("InvUI Item Renderer #", 0).daemon().factory()
+    );
+    
+    private AsyncItemRenderer() {
+        InvUI.getInstance().addDisableHandler(executor::shutdownNow);
+    }
+    
+    /**
+     * Gets the {@link AsyncItemRenderer} singleton instance.
+     *
+     * @return The {@link AsyncItemRenderer} singleton instance
+     */
+    static AsyncItemRenderer getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Submits the given render task. Cancelling the returned future before the task has started prevents it from running.
+     *
+     * @param task The render task
+     * @param <T>  The type of the render result
+     * @return A future of the render result
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+    
+}
@@ -0,0 +1,159 @@
+package xyz.xenondevs.invui.window;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.jspecify.annotations.Nullable;
+import xyz.xenondevs.invui.Metrics;
+import xyz.xenondevs.invui.gui.SlotElement;
+import xyz.xenondevs.invui.internal.network.SharedItemEncoder;
+import xyz.xenondevs.invui.item.Item;
+import xyz.xenondevs.invui.item.ItemProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A pool of rendered slot items that is shared between all windows.
+ * <p>
+ * Windows that render the same unmodified {@link ItemProvider} into the same slot in the same {@link Locale}
+ * receive the same {@link ItemStack} instance, which is {@link SharedItemEncoder#markShared(net.minecraft.world.item.ItemStack) marked as shared}
+ * so that it is only encoded once for all viewers.
+ * <p>
+ * Additionally, renders of {@link Item#isViewerIndependent() viewer-independent} items are memoized for the duration
+ * of a window tick, keyed by slot element, locale and slot. This way, all windows of a tick group that display such
+ * an item in the same locale reuse one render, even if its {@link ItemProvider} does not track modifications.
+ */
+final class SharedRenderPool {
+    
+    private static final SharedRenderPool INSTANCE = new SharedRenderPool();
+    
+    private final Cache<Key, ItemStack> renders = CacheBuilder.newBuilder()
+        .weakValues()
+        .expireAfterAccess(Duration.ofMinutes(1))
+        .maximumSize(16384)
+        .build();
+    
+    private final ThreadLocal<@Nullable Map<MemoKey, MemoEntry>> tickMemo = new ThreadLocal<>();
+    
+    private SharedRenderPool() {}
+    
+    /**
+     * Gets the {@link SharedRenderPool} singleton instance.
+     *
+     * @return The {@link SharedRenderPool} singleton instance
+     */
+    static SharedRenderPool getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets the pooled render of the given provider for the given slot and locale.
+     *
+     * @param provider The {@link ItemProvider}
+     * @param locale   The {@link Locale}
+     * @param slot     The slot
+     * @return The pooled {@link ItemStack}, or null if there is none or the provider does not track modifications
+     */
+    @Nullable ItemStack get(ItemProvider provider, Locale locale, int slot) {
+        int modCount = provider.getModCount();
+        if (modCount < 0)
+            return null;
+        return renders.getIfPresent(new Key(provider, modCount, locale, slot));
+    }
+    
+    /**
+     * Adds the given render of the given provider for the given slot and locale to the pool.
+     * The {@link ItemStack} may not be modified afterward.
+     *
+     * @param provider  The {@link ItemProvider} that rendered the {@link ItemStack}
+     * @param locale    The {@link Locale} that was rendered in
+     * @param slot      The slot
+     * @param itemStack The rendered {@link ItemStack}
+     */
+    void put(ItemProvider provider, Locale locale, int slot, ItemStack itemStack) {
+        put(provider, provider.getModCount(), locale, slot, itemStack);
+    }
+    
+    /**
+     * Adds the given render of the given provider for the given slot and locale to the pool, under the given
+     * modification state of the provider. This is required for renders that were created asynchronously,
+     * during which the provider may have been modified.
+     * The {@link ItemStack} may not be modified afterward.
+     *
+     * @param provider  The {@link ItemProvider} that rendered the {@link ItemStack}
+     * @param modCount  The {@link ItemProvider#getModCount() mod count} of the provider when the render was started
+     * @param locale    The {@link Locale} that was rendered in
+     * @param slot      The slot
+     * @param itemStack The rendered {@link ItemStack}
+     */
+    void put(ItemProvider provider, int modCount, Locale locale, int slot, ItemStack itemStack) {
+        if (modCount < 0)
+            return;
+        SharedItemEncoder.markShared(CraftItemStack.unwrap(itemStack));
+        renders.put(new Key(provider, modCount, locale, slot), itemStack);
+    }
+    
+    /**
+     * Starts memoizing renders of viewer-independent items on the current thread, until {@link #endTick()} is called.
+     */
+    void beginTick() {
+        tickMemo.set(new HashMap<>());
+    }
+    
+    /**
+     * Stops memoizing renders on the current thread and discards the memoized renders.
+     */
+    void endTick() {
+        tickMemo.remove();
+    }
+    
+    /**
+     * Gets the render of the given viewer-independent element that was memoized during the current tick.
+     *
+     * @param element  The {@link SlotElement.Item}
+     * @param provider The {@link ItemProvider} of the element
+     * @param locale   The {@link Locale}
+     * @param slot     The slot
+     * @return The memoized {@link ItemStack}, which may not be modified, or null if there is none
+     * or it was rendered by another {@link ItemProvider} or modification state
+     */
+    @Nullable ItemStack getMemoized(SlotElement.Item element, ItemProvider provider, Locale locale, int slot) {
+        var memo = tickMemo.get();
+        if (memo == null)
+            return null;
+        
+        var entry = memo.get(new MemoKey(element, locale, slot));
+        if (entry == null || entry.provider() != provider || entry.modCount() != provider.getModCount())
+            return null;
+        
+        Metrics.getInstance().recordRenderMemoHit();
+        return entry.itemStack();
+    }
+    
+    /**
+     * Memoizes the given render of the given viewer-independent element for the rest of the current tick,
+     * if a tick is in progress on the current thread.
+     *
+     * @param element   The {@link SlotElement.Item}
+     * @param provider  The {@link ItemProvider} that rendered the {@link ItemStack}
+     * @param locale    The {@link Locale} that was rendered in
+     * @param slot      The slot
+     * @param itemStack The rendered {@link ItemStack}, which may not be modified afterward
+     */
+    void memoize(SlotElement.Item element, ItemProvider provider, Locale locale, int slot, ItemStack itemStack) {
+        var memo = tickMemo.get();
+        if (memo != null)
+            memo.put(new MemoKey(element, locale, slot), new MemoEntry(provider, provider.getModCount(), itemStack));
+    }
+    
+    private record Key(ItemProvider provider, int modCount, Locale locale, int slot) {}
+    
+    private record MemoKey(SlotElement.Item element, Locale locale, int slot) {}
+    
+    private record MemoEntry(ItemProvider provider, int modCount, ItemStack itemStack) {}
+    
+}
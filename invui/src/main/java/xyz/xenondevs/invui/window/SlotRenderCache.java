@@ -0,0 +1,88 @@
+package xyz.xenondevs.invui.window;
+
+import org.jspecify.annotations.Nullable;
+import xyz.xenondevs.invui.item.ItemProvider;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Remembers which {@link ItemProvider}, in which modification state, locale and window render state, rendered the item
+ * that is currently placed in each slot of a window.
+ * If the same provider is about to render the same slot again without having been modified,
+ * the already placed item can be kept, which skips the clone and slot tagging of the rendered item.
+ */
+final class SlotRenderCache {
+    
+    private final @Nullable ItemProvider[] providers;
+    private final int[] modCounts;
+    private final @Nullable Locale[] locales;
+    private final int[] renderStates;
+    
+    SlotRenderCache(int size) {
+        this.providers = new ItemProvider[size];
+        this.modCounts = new int[size];
+        this.locales = new Locale[size];
+        this.renderStates = new int[size];
+    }
+    
+    /**
+     * Checks whether the item in the given slot was rendered by the given provider in its current
+     * modification state, the given locale and the given window render state.
+     *
+     * @param slot        The slot
+     * @param provider    The {@link ItemProvider} that is about to render the slot
+     * @param locale      The {@link Locale} to render in
+     * @param renderState The state of the window that affects how the slot is rendered
+     * @return Whether the rendered item is still up-to-date
+     */
+    boolean isCached(int slot, ItemProvider provider, Locale locale, int renderState) {
+        return providers[slot] == provider
+               && modCounts[slot] == provider.getModCount()
+               && locale.equals(locales[slot])
+               && renderStates[slot] == renderState;
+    }
+    
+    /**
+     * Remembers that the item in the given slot was rendered by the given provider.
+     * If the provider does not track modifications, the slot is {@link #invalidate(int) invalidated} instead.
+     *
+     * @param slot        The slot
+     * @param provider    The {@link ItemProvider} that rendered the slot
+     * @param locale      The {@link Locale} that was rendered in
+     * @param renderState The state of the window that affected how the slot was rendered
+     */
+    void put(int slot, ItemProvider provider, Locale locale, int renderState) {
+        int modCount = provider.getModCount();
+        if (modCount < 0) {
+            invalidate(slot);
+            return;
+        }
+        
+        providers[slot] = provider;
+        modCounts[slot] = modCount;
+        locales[slot] = locale;
+        renderStates[slot] = renderState;
+    }
+    
+    /**
+     * Forgets the rendered item of the given slot.
+     *
+     * @param slot The slot
+     */
+    void invalidate(int slot) {
+        if (slot < 0 || slot >= providers.length)
+            return;
+        providers[slot] = null;
+        locales[slot] = null;
+    }
+    
+    /**
+     * Forgets the rendered items of all slots.
+     */
+    void clear() {
+        Arrays.fill(providers, null);
+        Arrays.fill(locales, null);
+    }
+    
+}
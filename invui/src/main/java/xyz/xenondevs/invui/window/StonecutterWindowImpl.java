@@ -109,6 +109,17 @@ final class StonecutterWindowImpl extends AbstractSplitWindow<CustomStonecutterM
         flushDirtyButtons();
     }
     
+    @Override
+    public void handleIncoming() {
+        super.handleIncoming();
+        flushDirtyButtons();
+    }
+    
+    @Override
+    protected boolean isIdle() {
+        return super.isIdle() && !buttonsDirty;
+    }
+    
     @Override
     protected void postItemInit() {
         flushDirtyButtons();
@@ -0,0 +1,151 @@
+package xyz.xenondevs.invui.window;
+
+import org.bukkit.entity.Player;
+import xyz.xenondevs.invui.InvUI;
+import xyz.xenondevs.invui.internal.util.ThreadCheck;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides per-player navigation between {@link Window Windows} with instant back navigation.
+ * <p>
+ * Instead of closing the window that is currently open, {@link #navigate(Window)} suspends it and pushes it onto the
+ * navigation history of the player. A suspended window no longer observes its slot elements, but keeps the slot
+ * elements and items it displayed. Navigating {@link #back(Player) back} resumes the window, which only re-renders
+ * the slots that changed while it was suspended. Open and close handlers are called as if the windows were opened
+ * and closed normally.
+ * <p>
+ * The history of each player is limited to {@link #getMaxDepth()} windows, beyond which the oldest windows are
+ * dropped. It is cleared once the player no longer has any window open.
+ */
+public final class WindowNavigator {
+    
+    private static final WindowNavigator INSTANCE = new WindowNavigator();
+    private static final int DEFAULT_MAX_DEPTH = 8;
+    
+    private final Map<Player, Deque<AbstractWindow<?>>> histories = new ConcurrentHashMap<>();
+    private volatile int maxDepth = DEFAULT_MAX_DEPTH;
+    
+    private WindowNavigator() {
+        InvUI.getInstance().addDisableHandler(() -> {
+            histories.values().forEach(history -> history.forEach(AbstractWindow::discardSuspended));
+            histories.clear();
+        });
+    }
+    
+    /**
+     * Gets the {@link WindowNavigator} singleton instance.
+     *
+     * @return The {@link WindowNavigator} singleton instance
+     */
+    public static WindowNavigator getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Opens the given {@link Window}. If the viewer currently has another window open,
+     * that window is suspended and added to the navigation history of the viewer.
+     *
+     * @param window The {@link Window} to open
+     */
+    public void navigate(Window window) {
+        var next = (AbstractWindow<?>) window;
+        Player viewer = next.getViewer();
+        ThreadCheck.checkOwnedBy(viewer);
+        
+        var current = (AbstractWindow<?>) WindowManager.getInstance().getOpenWindow(viewer);
+        next.open(true);
+        if (current == null || !current.isSuspended())
+            return;
+        
+        Deque<AbstractWindow<?>> history = histories.computeIfAbsent(viewer, _ -> new ArrayDeque<>());
+        history.remove(next);
+        history.push(current);
+        trim(history);
+    }
+    
+    /**
+     * Resumes the window that was most recently suspended by {@link #navigate(Window)} for the given player,
+     * closing the window that is currently open.
+     *
+     * @param player The player
+     * @return Whether a window was resumed
+     */
+    public boolean back(Player player) {
+        ThreadCheck.checkOwnedBy(player);
+        Deque<AbstractWindow<?>> history = histories.get(player);
+        if (history == null)
+            return false;
+        
+        AbstractWindow<?> previous;
+        do {
+            previous = history.poll();
+            if (previous == null)
+                return false;
+        } while (previous.isOpen()); // was opened directly in the meantime
+        
+        previous.open();
+        if (!previous.isOpen()) {
+            // the window could not be opened, e.g. because the player is sleeping
+            history.push(previous);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Gets the amount of windows that can be navigated {@link #back(Player) back} to by the given player.
+     *
+     * @param player The player
+     * @return The amount of windows in the navigation history of the player
+     */
+    public int getDepth(Player player) {
+        Deque<AbstractWindow<?>> history = histories.get(player);
+        return history != null ? history.size() : 0;
+    }
+    
+    /**
+     * Clears the navigation history of the given player, dropping the state of all suspended windows.
+     *
+     * @param player The player
+     */
+    public void clear(Player player) {
+        Deque<AbstractWindow<?>> history = histories.remove(player);
+        if (history != null)
+            history.forEach(AbstractWindow::discardSuspended);
+    }
+    
+    /**
+     * Gets the maximum amount of windows in the navigation history of each player.
+     *
+     * @return The maximum navigation depth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    /**
+     * Sets the maximum amount of windows in the navigation history of each player.
+     * Navigation histories that are deeper are trimmed the next time a window is suspended.
+     * Defaults to 8.
+     *
+     * @param maxDepth The maximum navigation depth
+     * @throws IllegalArgumentException If maxDepth is negative
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+        this.maxDepth = maxDepth;
+    }
+    
+    private void trim(Deque<AbstractWindow<?>> history) {
+        while (history.size() > maxDepth) {
+            history.removeLast().discardSuspended();
+        }
+    }
+    
+}
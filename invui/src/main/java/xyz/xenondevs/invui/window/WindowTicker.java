@@ -0,0 +1,186 @@
+package xyz.xenondevs.invui.window;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jspecify.annotations.Nullable;
+import xyz.xenondevs.invui.InvUI;
+import xyz.xenondevs.invui.internal.network.PacketListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drives the ticks of all open {@link AbstractWindow AbstractWindows}.
+ * <p>
+ * Instead of scheduling one task per window, windows are grouped by the region (thread) that owns their viewer,
+ * and every group is ticked by a single task. On Paper, all windows are owned by the server thread and thus
+ * end up in the same group. On Folia, there is one group per region that has viewers with open windows.
+ * <p>
+ * A group task is scheduled on the entity scheduler of its anchor, which is the viewer of the window that created the group.
+ * Windows whose viewer is no longer owned by the thread of their group (i.e. the viewer moved to another region) are handed
+ * over to a group of their new region.
+ */
+final class WindowTicker {
+    
+    private static final WindowTicker INSTANCE = new WindowTicker();
+    
+    private final Set<TickGroup> groups = ConcurrentHashMap.newKeySet();
+    
+    private WindowTicker() {
+        InvUI.getInstance().addDisableHandler(() -> groups.forEach(TickGroup::retire));
+    }
+    
+    /**
+     * Gets the {@link WindowTicker} singleton instance.
+     *
+     * @return The {@link WindowTicker} singleton instance
+     */
+    static WindowTicker getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Starts ticking the given {@link AbstractWindow}.
+     * Must be called from the thread that owns the viewer of the window.
+     *
+     * @param window The {@link AbstractWindow} to tick
+     */
+    void add(AbstractWindow<?> window) {
+        assert window.tickGroup == null;
+        
+        for (TickGroup group : groups) {
+            if (group.tryAdd(window))
+                return;
+        }
+        
+        var group = new TickGroup(window.getViewer());
+        group.tryAdd(window);
+        if (group.start()) {
+            groups.add(group);
+        } else {
+            // viewer entity is retired, window will be closed shortly
+            group.windows.clear();
+            window.tickGroup = null;
+        }
+    }
+    
+    /**
+     * Stops ticking the given {@link AbstractWindow}.
+     *
+     * @param window The {@link AbstractWindow} to no longer tick
+     */
+    void remove(AbstractWindow<?> window) {
+        var group = window.tickGroup;
+        if (group != null) {
+            group.windows.remove(window);
+            window.tickGroup = null;
+        }
+    }
+    
+    /**
+     * Re-adds the given window on the thread of its viewer, if it is still open.
+     *
+     * @param window The {@link AbstractWindow} to hand over
+     */
+    private void handOver(AbstractWindow<?> window) {
+        window.getViewer().getScheduler().run(
+            InvUI.getInstance().getPlugin(),
+            _ -> {
+                if (window.isOpen() && window.tickGroup == null)
+                    add(window);
+            },
+            null
+        );
+    }
+    
+    /**
+     * A group of windows whose viewers are owned by the same region (thread).
+     */
+    static final class TickGroup {
+        
+        private final Player anchor;
+        private final Set<AbstractWindow<?>> windows = ConcurrentHashMap.newKeySet();
+        private volatile @Nullable ScheduledTask task;
+        private volatile boolean retired;
+        
+        private TickGroup(Player anchor) {
+            this.anchor = anchor;
+        }
+        
+        private boolean start() {
+            task = anchor.getScheduler().runAtFixedRate(
+                InvUI.getInstance().getPlugin(),
+                _ -> tick(),
+                this::handleAnchorRetired,
+                1, 1
+            );
+            return task != null;
+        }
+        
+        /**
+         * Adds the window to this group if the current thread is the thread of this group.
+         *
+         * @param window The window to add
+         * @return Whether the window was added
+         */
+        private boolean tryAdd(AbstractWindow<?> window) {
+            if (retired || !Bukkit.isOwnedByCurrentRegion(anchor))
+                return false;
+            
+            windows.add(window);
+            window.tickGroup = this;
+            return true;
+        }
+        
+        private void tick() {
+            if (windows.isEmpty()) {
+                retire();
+                return;
+            }
+            
+            // coalesce all packets sent to a player during this tick into one bundle
+            PacketListener.getInstance().beginBatch();
+            SharedRenderPool.getInstance().beginTick();
+            try {
+                for (AbstractWindow<?> window : windows) {
+                    if (!Bukkit.isOwnedByCurrentRegion(window.getViewer())) {
+                        // viewer is now owned by another region
+                        windows.remove(window);
+                        window.tickGroup = null;
+                        INSTANCE.handOver(window);
+                        continue;
+                    }
+                    
+                    try {
+                        window.tick();
+                    } catch (Throwable t) {
+                        InvUI.getInstance().handleException("An exception occurred while ticking window", t);
+                    }
+                }
+            } finally {
+                SharedRenderPool.getInstance().endTick();
+                PacketListener.getInstance().endBatch();
+            }
+        }
+        
+        private void handleAnchorRetired() {
+            retire();
+            for (AbstractWindow<?> window : windows) {
+                windows.remove(window);
+                window.tickGroup = null;
+                INSTANCE.handOver(window);
+            }
+        }
+        
+        private void retire() {
+            retired = true;
+            INSTANCE.groups.remove(this);
+            var task = this.task;
+            if (task != null)
+                task.cancel();
+        }
+        
+    }
+    
+}
@@ -0,0 +1,149 @@
+package xyz.xenondevs.invui.gui;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import xyz.xenondevs.invui.Click;
+import xyz.xenondevs.invui.inventory.Inventory;
+import xyz.xenondevs.invui.inventory.VirtualInventory;
+import xyz.xenondevs.invui.inventory.event.UpdateReason;
+import xyz.xenondevs.invui.util.ItemUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class GuiClickAllocationTest {
+    
+    private static final int WARMUP_CYCLES = 2_000;
+    private static final int MEASURED_CYCLES = 1_000;
+    
+    @SuppressWarnings("NotNullFieldNotInitialized")
+    private static ServerMock server;
+    
+    @BeforeAll
+    public static void setUp() {
+        server = MockBukkit.mock();
+    }
+    
+    @AfterAll
+    public static void tearDown() {
+        MockBukkit.unmock();
+    }
+    
+    @Test
+    public void testLeftClickWithoutEventHandlersAllocatesLess() {
+        var player = server.addPlayer();
+        var inventory = new VirtualInventory(9);
+        inventory.setItem(UpdateReason.SUPPRESSED, 0, ItemStack.of(Material.DIAMOND, 32));
+        var gui = Gui.empty(9, 1);
+        gui.fillRectangle(0, 0, 9, inventory, true);
+        
+        // pick up the stack and put it back into the same slot
+        Runnable cycle = () -> {
+            gui.handleClick(0, new Click(player, ClickType.LEFT));
+            gui.handleClick(0, new Click(player, ClickType.LEFT));
+        };
+        
+        assertClickAllocationsDependOnEventHandlers(inventory, cycle);
+        assertEquals(ItemStack.of(Material.DIAMOND, 32), inventory.getItem(0));
+        assertTrue(ItemUtils.isEmpty(player.getItemOnCursor()));
+    }
+    
+    @Test
+    public void testRightClickWithoutEventHandlersAllocatesLess() {
+        var player = server.addPlayer();
+        var inventory = new VirtualInventory(9);
+        inventory.setItem(UpdateReason.SUPPRESSED, 0, ItemStack.of(Material.DIAMOND, 32));
+        var gui = Gui.empty(9, 1);
+        gui.fillRectangle(0, 0, 9, inventory, true);
+        
+        // pick up half of the stack and put it back into the same slot
+        Runnable cycle = () -> {
+            gui.handleClick(0, new Click(player, ClickType.RIGHT));
+            gui.handleClick(0, new Click(player, ClickType.LEFT));
+        };
+        
+        assertClickAllocationsDependOnEventHandlers(inventory, cycle);
+        assertEquals(ItemStack.of(Material.DIAMOND, 32), inventory.getItem(0));
+        assertTrue(ItemUtils.isEmpty(player.getItemOnCursor()));
+    }
+    
+    @Test
+    public void testSwapWithCursorDoesNotModifyPreviousStack() {
+        Player player = server.addPlayer();
+        var inventory = new VirtualInventory(9);
+        inventory.setItem(UpdateReason.SUPPRESSED, 0, ItemStack.of(Material.DIAMOND, 32));
+        var gui = Gui.empty(9, 1);
+        gui.fillRectangle(0, 0, 9, inventory, true);
+        
+        player.setItemOnCursor(ItemStack.of(Material.EMERALD, 16));
+        gui.handleClick(0, new Click(player, ClickType.LEFT));
+        
+        assertEquals(ItemStack.of(Material.EMERALD, 16), inventory.getItem(0));
+        assertEquals(ItemStack.of(Material.DIAMOND, 32), player.getItemOnCursor());
+        
+        // modifying the cursor must not affect the inventory
+        player.getItemOnCursor().setAmount(1);
+        assertEquals(ItemStack.of(Material.EMERALD, 16), inventory.getItem(0));
+    }
+    
+    @Test
+    public void testGetInventories() {
+        var inv1 = new VirtualInventory(9);
+        var inv2 = new VirtualInventory(9);
+        var gui = Gui.empty(9, 2);
+        gui.fillRectangle(0, 0, 9, inv1, true);
+        gui.fillRectangle(0, 1, 9, inv2, true);
+        
+        gui.setIgnoreObscuredInventorySlots(false);
+        assertIterableEquals(List.of(inv1, inv2), gui.getInventories());
+        assertIterableEquals(List.of(inv2), gui.getInventories(inv1));
+        
+        gui.setIgnoreObscuredInventorySlots(true);
+        assertEquals(2, gui.getInventories().size());
+        assertEquals(1, gui.getInventories(inv2).size());
+        
+        gui.setFrozen(true);
+        assertTrue(gui.getInventories().isEmpty());
+    }
+    
+    private static void assertClickAllocationsDependOnEventHandlers(Inventory inventory, Runnable cycle) {
+        var threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(
+            threadBean instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported(),
+            "Thread allocation tracking is not supported"
+        );
+        
+        long withoutHandlers = measureAllocatedBytes(cycle);
+        inventory.addPreUpdateHandler(_ -> {});
+        long withHandlers = measureAllocatedBytes(cycle);
+        
+        assertTrue(
+            withoutHandlers < withHandlers,
+            "Clicks without event handlers allocated " + withoutHandlers + " bytes, with event handlers " + withHandlers + " bytes"
+        );
+    }
+    
+    private static long measureAllocatedBytes(Runnable cycle) {
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            cycle.run();
+        }
+        
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CYCLES; i++) {
+            cycle.run();
+        }
+        return threadBean.getCurrentThreadAllocatedBytes() - before;
+    }
+    
+}
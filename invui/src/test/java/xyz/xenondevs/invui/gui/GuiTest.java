@@ -508,4 +508,58 @@ public class GuiTest {
         assertEquals(gui.getSlotElement(5), new SlotElement.GuiLink(delegatedTo, 5));
     }
     
+    @Test
+    public void testGetInventoriesFollowsSlotElementChanges() {
+        var inv1 = new VirtualInventory(9);
+        var inv2 = new VirtualInventory(9);
+        var gui = Gui.empty(9, 1);
+        gui.setIgnoreObscuredInventorySlots(false);
+        
+        gui.fillRectangle(0, 0, 9, inv1, true);
+        assertEquals(List.of(inv1), List.copyOf(gui.getInventories()));
+        
+        gui.setSlotElement(0, new SlotElement.InventoryLink(inv2, 0));
+        assertEquals(List.of(inv1, inv2), List.copyOf(gui.getInventories()));
+        
+        for (int i = 1; i < 9; i++) {
+            gui.setSlotElement(i, new SlotElement.InventoryLink(inv2, i));
+        }
+        assertEquals(List.of(inv2), List.copyOf(gui.getInventories()));
+        
+        gui.setSlotElement(0, null);
+        assertEquals(List.of(inv2), List.copyOf(gui.getInventories()));
+    }
+    
+    @Test
+    public void testGetInventoriesObscuresUnlinkedSlots() {
+        var inventory = new VirtualInventory(9);
+        var gui = Gui.empty(3, 1);
+        gui.setSlotElement(0, new SlotElement.InventoryLink(inventory, 4));
+        gui.setSlotElement(1, new SlotElement.InventoryLink(inventory, 4));
+        gui.setSlotElement(2, new SlotElement.InventoryLink(inventory, 7));
+        
+        assertEquals(2, gui.getInventories().iterator().next().getSize());
+        
+        gui.setSlotElement(0, null);
+        assertEquals(2, gui.getInventories().iterator().next().getSize());
+        
+        gui.setSlotElement(1, null);
+        assertEquals(1, gui.getInventories().iterator().next().getSize());
+    }
+    
+    @Test
+    public void testGetInventoriesThroughGuiLinks() {
+        var inventory = new VirtualInventory(9);
+        var inner = Gui.empty(9, 1);
+        inner.fillRectangle(0, 0, 9, inventory, true);
+        var outer = Gui.empty(9, 1);
+        outer.fillRectangle(0, 0, inner, true);
+        
+        assertEquals(1, outer.getInventories().size());
+        assertEquals(9, outer.getInventories().iterator().next().getSize());
+        
+        inner.setFrozen(true);
+        assertTrue(outer.getInventories().isEmpty());
+    }
+    
 }
@@ -0,0 +1,99 @@
+package xyz.xenondevs.invui.internal.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeriodicSlotIndexTest {
+    
+    @Test
+    public void testEmpty() {
+        var index = new PeriodicSlotIndex(9);
+        assertTrue(index.isEmpty());
+        assertEquals(0, index.forEachDue(0, _ -> fail()));
+    }
+    
+    @Test
+    public void testForEachDue() {
+        var index = new PeriodicSlotIndex(9);
+        index.set(1, 1);
+        index.set(3, 2);
+        index.set(5, 3);
+        index.set(7, 0);
+        
+        assertEquals(List.of(1, 3, 5), due(index, 0));
+        assertEquals(List.of(1), due(index, 1));
+        assertEquals(List.of(1, 3), due(index, 2));
+        assertEquals(List.of(1, 5), due(index, 3));
+    }
+    
+    @Test
+    public void testHasDue() {
+        var index = new PeriodicSlotIndex(9);
+        assertFalse(index.hasDue(0));
+        
+        index.set(3, 2);
+        index.set(5, 3);
+        assertTrue(index.hasDue(0));
+        assertFalse(index.hasDue(1));
+        assertTrue(index.hasDue(2));
+        assertTrue(index.hasDue(3));
+        
+        index.set(3, 0);
+        assertFalse(index.hasDue(2));
+    }
+    
+    @Test
+    public void testChangePeriod() {
+        var index = new PeriodicSlotIndex(9);
+        index.set(0, 2);
+        index.set(0, 3);
+        assertEquals(3, index.get(0));
+        assertEquals(List.of(), due(index, 2));
+        assertEquals(List.of(0), due(index, 3));
+        
+        index.set(0, -1);
+        assertTrue(index.isEmpty());
+        assertEquals(List.of(), due(index, 6));
+    }
+    
+    @Test
+    public void testChangeDuringIteration() {
+        var index = new PeriodicSlotIndex(9);
+        index.set(0, 1);
+        index.set(1, 1);
+        index.set(2, 1);
+        
+        var visited = new IntArrayList();
+        index.forEachDue(0, slot -> {
+            visited.add(slot);
+            index.set(slot, 0);
+            index.set(8, 5);
+        });
+        
+        assertEquals(List.of(0, 1, 2), visited);
+        assertEquals(List.of(8), due(index, 5));
+        assertEquals(List.of(), due(index, 1));
+    }
+    
+    @Test
+    public void testClear() {
+        var index = new PeriodicSlotIndex(9);
+        index.set(0, 1);
+        index.set(4, 4);
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertEquals(0, index.get(4));
+        assertEquals(List.of(), due(index, 4));
+    }
+    
+    private static List<Integer> due(PeriodicSlotIndex index, int tick) {
+        var slots = new IntArrayList();
+        index.forEachDue(tick, slots::add);
+        return slots;
+    }
+    
+}
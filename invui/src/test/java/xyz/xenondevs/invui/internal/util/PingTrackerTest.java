@@ -0,0 +1,81 @@
+package xyz.xenondevs.invui.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PingTrackerTest {
+    
+    @Test
+    public void testAddAndRemove() {
+        var tracker = new PingTracker(4, 100);
+        tracker.add(10, 1, 0);
+        tracker.add(20, 2, 5);
+        
+        int i = tracker.remove(20);
+        assertNotEquals(-1, i);
+        assertEquals(2, tracker.getData(i));
+        assertEquals(5, tracker.getTimestamp(i));
+        
+        assertEquals(-1, tracker.remove(20));
+        assertEquals(1, tracker.getData(tracker.remove(10)));
+    }
+    
+    @Test
+    public void testClear() {
+        var tracker = new PingTracker(4, 100);
+        tracker.add(10, 1, 0);
+        tracker.add(20, 2, 5);
+        tracker.clear();
+        assertEquals(0, tracker.size());
+        assertEquals(-1, tracker.remove(10));
+        
+        tracker.add(30, 3, 10);
+        assertEquals(3, tracker.getData(tracker.remove(30)));
+    }
+    
+    @Test
+    public void testUnknownPing() {
+        var tracker = new PingTracker(4, 100);
+        tracker.add(10, 1, 0);
+        assertEquals(-1, tracker.remove(11));
+    }
+    
+    @Test
+    public void testTimeout() {
+        var tracker = new PingTracker(4, 100);
+        tracker.add(10, 1, 0);
+        tracker.add(20, 2, 50);
+        tracker.add(30, 3, 120);
+        
+        assertEquals(-1, tracker.remove(10));
+        assertEquals(2, tracker.getData(tracker.remove(20)));
+        assertEquals(3, tracker.getData(tracker.remove(30)));
+    }
+    
+    @Test
+    public void testOverwriteOldest() {
+        var tracker = new PingTracker(2, 100);
+        tracker.add(10, 1, 0);
+        tracker.add(20, 2, 0);
+        tracker.add(30, 3, 0);
+        
+        assertEquals(2, tracker.size());
+        assertEquals(-1, tracker.remove(10));
+        assertEquals(2, tracker.getData(tracker.remove(20)));
+        assertEquals(3, tracker.getData(tracker.remove(30)));
+    }
+    
+    @Test
+    public void testCleanUpAnswered() {
+        var tracker = new PingTracker(2, 100);
+        tracker.add(10, 1, 0);
+        tracker.remove(10);
+        tracker.add(20, 2, 0);
+        tracker.add(30, 3, 0);
+        
+        assertEquals(2, tracker.size());
+        assertEquals(2, tracker.getData(tracker.remove(20)));
+    }
+    
+}
@@ -34,6 +34,35 @@ public class WeakIdentityToIntMapTest {
         assertEquals(OptionalInt.empty(), map.get(new Key(1)));
     }
     
+    @Test
+    public void testSizeAndClear() {
+        var map = new WeakIdentityToIntMap<>();
+        var key1 = new Object();
+        var key2 = new Object();
+        map.putAssertAbsent(key1, 1);
+        map.putAssertAbsent(key2, 2);
+        assertEquals(2, map.size());
+        
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(OptionalInt.empty(), map.get(key1));
+    }
+    
+    @Test
+    public void testManyEntries() {
+        var map = new WeakIdentityToIntMap<>();
+        var keys = new Object[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+            map.putAssertAbsent(keys[i], i);
+        }
+        
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(OptionalInt.of(i), map.get(keys[i]));
+        }
+    }
+    
     private record Key(int value) {}
     
 }
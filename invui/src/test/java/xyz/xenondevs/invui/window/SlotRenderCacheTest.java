@@ -0,0 +1,74 @@
+package xyz.xenondevs.invui.window;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import xyz.xenondevs.invui.item.ItemBuilder;
+import xyz.xenondevs.invui.item.ItemWrapper;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotRenderCacheTest {
+    
+    @BeforeAll
+    public static void setUp() {
+        MockBukkit.mock();
+    }
+    
+    @AfterAll
+    public static void tearDown() {
+        MockBukkit.unmock();
+    }
+    
+    @Test
+    public void testCachedUntilProviderModified() {
+        var cache = new SlotRenderCache(3);
+        var builder = new ItemBuilder(Material.DIAMOND);
+        cache.put(1, builder, Locale.US, 0);
+        assertTrue(cache.isCached(1, builder, Locale.US, 0));
+        assertFalse(cache.isCached(0, builder, Locale.US, 0));
+        
+        builder.setAmount(2);
+        assertFalse(cache.isCached(1, builder, Locale.US, 0));
+    }
+    
+    @Test
+    public void testNotCachedInOtherLocale() {
+        var cache = new SlotRenderCache(3);
+        var provider = new ItemWrapper(ItemStack.of(Material.DIAMOND));
+        cache.put(0, provider, Locale.US, 0);
+        assertFalse(cache.isCached(0, provider, Locale.GERMANY, 0));
+    }
+    
+    @Test
+    public void testAnvilPropertyToggleInvalidatesSlot() {
+        // the text field slot of anvil windows is rendered differently if the text field is always enabled
+        var cache = new SlotRenderCache(3);
+        var provider = new ItemWrapper(ItemStack.empty());
+        int textFieldAlwaysEnabled = 1;
+        cache.put(0, provider, Locale.US, textFieldAlwaysEnabled);
+        assertTrue(cache.isCached(0, provider, Locale.US, textFieldAlwaysEnabled));
+        
+        int textFieldNotAlwaysEnabled = 0;
+        assertFalse(cache.isCached(0, provider, Locale.US, textFieldNotAlwaysEnabled));
+    }
+    
+    @Test
+    public void testInvalidate() {
+        var cache = new SlotRenderCache(3);
+        var provider = new ItemWrapper(ItemStack.of(Material.DIAMOND));
+        cache.put(2, provider, Locale.US, 0);
+        cache.invalidate(2);
+        assertFalse(cache.isCached(2, provider, Locale.US, 0));
+        
+        cache.put(2, provider, Locale.US, 0);
+        cache.clear();
+        assertFalse(cache.isCached(2, provider, Locale.US, 0));
+    }
+    
+}